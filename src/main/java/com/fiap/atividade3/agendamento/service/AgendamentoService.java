@@ -1,16 +1,41 @@
 package com.fiap.atividade3.agendamento.service;
 
+import com.fiap.atividade3.graphql.input.ConsultaInput;
+import com.fiap.atividade3.graphql.input.ConsultaLoteUpdateInput;
+import com.fiap.atividade3.graphql.type.ConsultaLoteResultado;
 import com.fiap.atividade3.model.entity.Consulta;
+import com.fiap.atividade3.model.entity.Enfermeiro;
+import com.fiap.atividade3.model.entity.Medico;
+import com.fiap.atividade3.model.entity.Paciente;
 import com.fiap.atividade3.model.entity.Usuario;
-import com.fiap.atividade3.model.enums.UserRole;
 import com.fiap.atividade3.repository.ConsultaRepository;
+import com.fiap.atividade3.repository.EnfermeiroRepository;
+import com.fiap.atividade3.repository.MedicoRepository;
+import com.fiap.atividade3.repository.PacienteRepository;
 import com.fiap.atividade3.notificacao.service.NotificacaoService;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static com.fiap.atividade3.repository.ConsultaSpecifications.comId;
+import static com.fiap.atividade3.repository.ConsultaSpecifications.visivelPara;
 
 @Service
 @Transactional
@@ -22,6 +47,21 @@ public class AgendamentoService {
     @Autowired
     private NotificacaoService notificacaoService;
 
+    @Autowired
+    private PacienteRepository pacienteRepository;
+
+    @Autowired
+    private MedicoRepository medicoRepository;
+
+    @Autowired
+    private EnfermeiroRepository enfermeiroRepository;
+
+    @Autowired
+    private Validator validator;
+
+    @Value("${consulta.lote.tamanho-maximo:1000}")
+    private int tamanhoMaximoLote;
+
     @PreAuthorize("hasRole('ENFERMEIRO') or hasRole('MEDICO')")
     public Consulta criarConsulta(Consulta consulta) {
         Consulta savedConsulta = consultaRepository.save(consulta);
@@ -61,20 +101,143 @@ public class AgendamentoService {
     }
 
 
-    public Consulta buscarConsultaPorId(Long id, Usuario usuario) {
-        Optional<Consulta> consulta = consultaRepository.findById(id);
-        if (consulta.isPresent()) {
-            Consulta c = consulta.get();
-            
-            // Pacientes só podem ver suas próprias consultas
-            if (usuario.getRole() == UserRole.PACIENTE) {
-                if (!c.getPaciente().getId().equals(usuario.getId())) {
-                    throw new RuntimeException("Acesso negado: você só pode visualizar suas próprias consultas");
-                }
+    // Items are validated up front, so one invalid item is reported without aborting the rest of the batch
+    @PreAuthorize("hasRole('ENFERMEIRO') or hasRole('MEDICO')")
+    public List<ConsultaLoteResultado> criarConsultasEmLote(List<ConsultaInput> inputs) {
+        verificarTamanhoLote(inputs.size());
+
+        // One query per referenced entity type instead of three lookups per item
+        Map<Long, Paciente> pacientes = porId(pacienteRepository.findAllById(ids(inputs, ConsultaInput::getPacienteId)), Paciente::getId);
+        Map<Long, Medico> medicos = porId(medicoRepository.findAllById(ids(inputs, ConsultaInput::getMedicoId)), Medico::getId);
+        Map<Long, Enfermeiro> enfermeiros = porId(enfermeiroRepository.findAllById(ids(inputs, ConsultaInput::getEnfermeiroId)), Enfermeiro::getId);
+
+        List<ConsultaLoteResultado> resultados = new ArrayList<>(inputs.size());
+        List<Consulta> novas = new ArrayList<>();
+        for (int i = 0; i < inputs.size(); i++) {
+            ConsultaInput input = inputs.get(i);
+            Consulta consulta = new Consulta();
+            consulta.setDataConsulta(input.getDataConsulta());
+            consulta.setMotivo(input.getMotivo());
+            consulta.setDiagnostico(input.getDiagnostico());
+            consulta.setPrescricao(input.getPrescricao());
+            consulta.setObservacoes(input.getObservacoes());
+            consulta.setPaciente(pacientes.get(input.getPacienteId()));
+            consulta.setMedico(medicos.get(input.getMedicoId()));
+            consulta.setEnfermeiro(enfermeiros.get(input.getEnfermeiroId()));
+
+            String erro = null;
+            if (consulta.getPaciente() == null) {
+                erro = "Paciente não encontrado";
+            } else if (consulta.getMedico() == null) {
+                erro = "Médico não encontrado";
+            } else if (input.getEnfermeiroId() != null && consulta.getEnfermeiro() == null) {
+                erro = "Enfermeiro não encontrado";
+            } else {
+                erro = primeiraViolacao(validator.validate(consulta));
+            }
+
+            if (erro != null) {
+                resultados.add(ConsultaLoteResultado.falha(i, null, erro));
+            } else {
+                novas.add(consulta);
+                resultados.add(ConsultaLoteResultado.sucesso(i, consulta));
             }
-            
-            return c;
         }
-        throw new RuntimeException("Consulta não encontrada");
+
+        consultaRepository.saveAll(novas);
+        notificacaoService.processarConsultasCriadasEmLote(novas);
+        return resultados;
+    }
+
+    @PreAuthorize("hasRole('MEDICO')")
+    public List<ConsultaLoteResultado> atualizarConsultasEmLote(List<ConsultaLoteUpdateInput> inputs) {
+        verificarTamanhoLote(inputs.size());
+
+        // Relations are fetched with the consultations because the batch event carries them
+        Map<Long, Consulta> existentes = porId(consultaRepository.findComRelacoesByIdIn(ids(inputs, ConsultaLoteUpdateInput::getId)), Consulta::getId);
+
+        List<ConsultaLoteResultado> resultados = new ArrayList<>(inputs.size());
+        // Several items may target the same consultation; it is saved and announced once
+        Set<Consulta> atualizadas = new LinkedHashSet<>();
+        for (int i = 0; i < inputs.size(); i++) {
+            ConsultaLoteUpdateInput input = inputs.get(i);
+            Consulta consulta = existentes.get(input.getId());
+            if (consulta == null) {
+                resultados.add(ConsultaLoteResultado.falha(i, input.getId(), "Consulta não encontrada"));
+                continue;
+            }
+
+            // Checked before touching the managed entity, so an invalid item is never flushed
+            String erro = primeiraViolacao(validator.validateValue(Consulta.class, "diagnostico", input.getDiagnostico()));
+            if (erro == null) {
+                erro = primeiraViolacao(validator.validateValue(Consulta.class, "prescricao", input.getPrescricao()));
+            }
+            if (erro == null) {
+                erro = primeiraViolacao(validator.validateValue(Consulta.class, "observacoes", input.getObservacoes()));
+            }
+            if (erro != null) {
+                resultados.add(ConsultaLoteResultado.falha(i, input.getId(), erro));
+                continue;
+            }
+
+            consulta.setDiagnostico(input.getDiagnostico());
+            consulta.setPrescricao(input.getPrescricao());
+            consulta.setObservacoes(input.getObservacoes());
+            atualizadas.add(consulta);
+            resultados.add(ConsultaLoteResultado.sucesso(i, consulta));
+        }
+
+        List<Consulta> salvas = consultaRepository.saveAll(atualizadas);
+        notificacaoService.processarConsultasAtualizadasEmLote(salvas);
+        return resultados;
+    }
+
+    @PreAuthorize("hasRole('MEDICO')")
+    public List<ConsultaLoteResultado> deletarConsultasEmLote(List<Long> ids) {
+        verificarTamanhoLote(ids.size());
+
+        Set<Long> existentes = new HashSet<>(consultaRepository.findIdsExistentes(ids(ids, Function.identity())));
+
+        List<ConsultaLoteResultado> resultados = new ArrayList<>(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            Long id = ids.get(i);
+            resultados.add(existentes.contains(id)
+                    ? ConsultaLoteResultado.sucesso(i, id)
+                    : ConsultaLoteResultado.falha(i, id, "Consulta não encontrada"));
+        }
+
+        // A single DELETE ... WHERE id IN (...) for the whole batch
+        if (!existentes.isEmpty()) {
+            consultaRepository.deleteAllByIdInBatch(existentes);
+        }
+        return resultados;
+    }
+
+
+    public Consulta buscarConsultaPorId(Long id, Usuario usuario) {
+        // Patients only see their own consultations; the filter is part of the query, so another patient's is not found
+        return consultaRepository.findOne(comId(id).and(visivelPara(usuario)))
+                .orElseThrow(() -> new RuntimeException("Consulta não encontrada"));
+    }
+
+
+    private void verificarTamanhoLote(int tamanho) {
+        if (tamanho > tamanhoMaximoLote) {
+            throw new RuntimeException("Lote excede o tamanho máximo de " + tamanhoMaximoLote + " itens");
+        }
+    }
+
+    private static <T> Set<Long> ids(Collection<T> itens, Function<T, Long> id) {
+        return itens.stream().map(id).filter(Objects::nonNull).collect(Collectors.toSet());
+    }
+
+    private static <T> Map<Long, T> porId(Collection<T> entidades, Function<T, Long> id) {
+        Map<Long, T> mapa = new HashMap<>();
+        entidades.forEach(entidade -> mapa.put(id.apply(entidade), entidade));
+        return mapa;
+    }
+
+    private static String primeiraViolacao(Set<? extends ConstraintViolation<?>> violacoes) {
+        return violacoes.isEmpty() ? null : violacoes.iterator().next().getMessage();
     }
 }
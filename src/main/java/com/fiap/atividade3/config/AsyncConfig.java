@@ -7,9 +7,11 @@ import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @Configuration
 @EnableAsync
+@EnableScheduling
 public class AsyncConfig {
 
     public static final String CONSULTA_EXCHANGE = "consulta.exchange";
@@ -17,6 +19,12 @@ public class AsyncConfig {
     public static final String CONSULTA_UPDATED_QUEUE = "consulta.updated.queue";
     public static final String CONSULTA_CREATED_ROUTING_KEY = "consulta.created";
     public static final String CONSULTA_UPDATED_ROUTING_KEY = "consulta.updated";
+    public static final String CONSULTA_BATCH_QUEUE = "consulta.lote.queue";
+    public static final String CONSULTA_BATCH_CREATED_ROUTING_KEY = "consulta.lote.created";
+    public static final String CONSULTA_BATCH_UPDATED_ROUTING_KEY = "consulta.lote.updated";
+    public static final String TOKEN_REVOKED_ROUTING_KEY = "token.revoked";
+    public static final String USUARIO_INVALIDATED_ROUTING_KEY = "usuario.invalidated";
+    public static final String DIRETORIO_CHANGED_ROUTING_KEY = "diretorio.changed";
 
     @Bean
     public TopicExchange consultaExchange() {
@@ -49,6 +57,97 @@ public class AsyncConfig {
                 .with(CONSULTA_UPDATED_ROUTING_KEY);
     }
 
+    @Bean
+    public Queue consultaBatchQueue() {
+        return QueueBuilder.durable(CONSULTA_BATCH_QUEUE).build();
+    }
+
+    @Bean
+    public Binding consultaBatchBinding() {
+        return BindingBuilder
+                .bind(consultaBatchQueue())
+                .to(consultaExchange())
+                .with("consulta.lote.#");
+    }
+
+    // One exclusive queue per node feeding the local GraphQL subscription broadcaster
+    @Bean
+    public Queue consultaBroadcastQueue() {
+        return new AnonymousQueue();
+    }
+
+    @Bean
+    public Binding consultaBroadcastCreatedBinding() {
+        return BindingBuilder
+                .bind(consultaBroadcastQueue())
+                .to(consultaExchange())
+                .with(CONSULTA_CREATED_ROUTING_KEY);
+    }
+
+    @Bean
+    public Binding consultaBroadcastUpdatedBinding() {
+        return BindingBuilder
+                .bind(consultaBroadcastQueue())
+                .to(consultaExchange())
+                .with(CONSULTA_UPDATED_ROUTING_KEY);
+    }
+
+    // Bulk mutations reach subscribers through their own queue, one message per batch
+    @Bean
+    public Queue consultaBatchBroadcastQueue() {
+        return new AnonymousQueue();
+    }
+
+    @Bean
+    public Binding consultaBatchBroadcastBinding() {
+        return BindingBuilder
+                .bind(consultaBatchBroadcastQueue())
+                .to(consultaExchange())
+                .with("consulta.lote.#");
+    }
+
+    // One exclusive queue per node, so every node receives every revocation
+    @Bean
+    public Queue tokenRevokedQueue() {
+        return new AnonymousQueue();
+    }
+
+    @Bean
+    public Binding tokenRevokedBinding() {
+        return BindingBuilder
+                .bind(tokenRevokedQueue())
+                .to(consultaExchange())
+                .with(TOKEN_REVOKED_ROUTING_KEY);
+    }
+
+    // Per-node queue as well: every node keeps its own user cache
+    @Bean
+    public Queue usuarioInvalidatedQueue() {
+        return new AnonymousQueue();
+    }
+
+    @Bean
+    public Binding usuarioInvalidatedBinding() {
+        return BindingBuilder
+                .bind(usuarioInvalidatedQueue())
+                .to(consultaExchange())
+                .with(USUARIO_INVALIDATED_ROUTING_KEY);
+    }
+
+    // Per-node queue: every node keeps its own directory versions
+    @Bean
+    public Queue diretorioChangedQueue() {
+        return new AnonymousQueue();
+    }
+
+    @Bean
+    public Binding diretorioChangedBinding() {
+        return BindingBuilder
+                .bind(diretorioChangedQueue())
+                .to(consultaExchange())
+                .with(DIRETORIO_CHANGED_ROUTING_KEY);
+    }
+
     @Bean
     public Jackson2JsonMessageConverter messageConverter() {
         return new Jackson2JsonMessageConverter();
@@ -0,0 +1,34 @@
+package com.fiap.atividade3.config;
+
+import com.fiap.atividade3.diretorio.busca.BuscaPorNome;
+import com.fiap.atividade3.diretorio.busca.NgramBuscaPorNome;
+import com.fiap.atividade3.diretorio.busca.PgTrgmBuscaPorNome;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+@Configuration
+public class BuscaConfig {
+
+    // Minimum share of the search term's trigrams a name must contain
+    @Value("${busca.nome.limiar:0.5}")
+    private double limiar;
+
+    // pg_trgm on PostgreSQL, where migration V6 installs it; the in-process index everywhere else
+    @Bean
+    public BuscaPorNome buscaPorNome(DataSource dataSource, JdbcTemplate jdbcTemplate) throws SQLException {
+        String produto;
+        try (Connection connection = dataSource.getConnection()) {
+            produto = connection.getMetaData().getDatabaseProductName();
+        }
+        if ("PostgreSQL".equals(produto)) {
+            return new PgTrgmBuscaPorNome(jdbcTemplate, limiar);
+        }
+        return new NgramBuscaPorNome(jdbcTemplate, limiar);
+    }
+}
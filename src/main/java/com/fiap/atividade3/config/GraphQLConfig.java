@@ -1,7 +1,73 @@
 package com.fiap.atividade3.config;
 
+import com.fiap.atividade3.graphql.execution.ResolverExecutor;
+import com.fiap.atividade3.graphql.instrumentation.ConcurrentRootFieldInstrumentation;
+import com.fiap.atividade3.graphql.instrumentation.OperationMetricTag;
+import com.fiap.atividade3.graphql.instrumentation.QueryCostInstrumentation;
+import com.fiap.atividade3.graphql.instrumentation.QueryCostProperties;
+import com.fiap.atividade3.graphql.instrumentation.RateLimitInstrumentation;
+import com.fiap.atividade3.graphql.instrumentation.ResolverMetricsInstrumentation;
+import com.fiap.atividade3.graphql.interceptor.ClientAddressInterceptor;
+import com.fiap.atividade3.graphql.interceptor.WebSocketAuthInterceptor;
+import com.fiap.atividade3.graphql.persisted.CaffeinePersistedQueryCache;
+import com.fiap.atividade3.graphql.persisted.PersistedQueryDocumentProvider;
+import com.fiap.atividade3.security.RateLimitProperties;
+import com.fiap.atividade3.security.JwtUtil;
+import com.fiap.atividade3.security.RateLimiter;
+import com.fiap.atividade3.security.RevokedTokenRegistry;
+import com.fiap.atividade3.security.TokenVersionRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.graphql.GraphQlSourceBuilderCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 @Configuration
+@EnableConfigurationProperties({RateLimitProperties.class, QueryCostProperties.class})
 public class GraphQLConfig {
+
+    @Bean
+    public ClientAddressInterceptor clientAddressInterceptor() {
+        return new ClientAddressInterceptor();
+    }
+
+    @Bean
+    public WebSocketAuthInterceptor webSocketAuthInterceptor(JwtUtil jwtUtil, RevokedTokenRegistry revokedTokenRegistry,
+                                                             TokenVersionRegistry tokenVersionRegistry) {
+        return new WebSocketAuthInterceptor(jwtUtil, revokedTokenRegistry, tokenVersionRegistry);
+    }
+
+    @Bean
+    public RateLimitInstrumentation rateLimitInstrumentation(RateLimiter rateLimiter, RateLimitProperties properties) {
+        return new RateLimitInstrumentation(rateLimiter, properties);
+    }
+
+    @Bean
+    public OperationMetricTag operationMetricTag(CaffeinePersistedQueryCache persistedQueryCache) {
+        return new OperationMetricTag(persistedQueryCache.getOperacoes());
+    }
+
+    @Bean
+    public QueryCostInstrumentation queryCostInstrumentation(QueryCostProperties properties, MeterRegistry meterRegistry,
+                                                             OperationMetricTag operationMetricTag,
+                                                             @Value("${consulta.paginacao.tamanho-maximo:100}") int maxPageSize) {
+        return new QueryCostInstrumentation(properties, meterRegistry, operationMetricTag, maxPageSize);
+    }
+
+    @Bean
+    public ResolverMetricsInstrumentation resolverMetricsInstrumentation(MeterRegistry meterRegistry,
+                                                                         OperationMetricTag operationMetricTag) {
+        return new ResolverMetricsInstrumentation(meterRegistry, operationMetricTag);
+    }
+
+    @Bean
+    public ConcurrentRootFieldInstrumentation concurrentRootFieldInstrumentation(ResolverExecutor resolverExecutor) {
+        return new ConcurrentRootFieldInstrumentation(resolverExecutor);
+    }
+
+    @Bean
+    public GraphQlSourceBuilderCustomizer persistedQueryCustomizer(PersistedQueryDocumentProvider documentProvider) {
+        return builder -> builder.configureGraphQl(graphQl -> graphQl.preparsedDocumentProvider(documentProvider));
+    }
 }
@@ -0,0 +1,65 @@
+package com.fiap.atividade3.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+
+// Hit ratios of the second-level and query caches. The hit and miss counters per region already come from
+// Spring Boot's Hibernate metrics; the ratio saves every dashboard from dividing them itself
+@Component
+public class HibernateCacheMetrics {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @PostConstruct
+    public void init() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        if (!statistics.isStatisticsEnabled()) {
+            return;
+        }
+
+        for (String regiao : statistics.getSecondLevelCacheRegionNames()) {
+            Gauge.builder("hibernate.cache.hit.ratio", statistics, s -> taxaDaRegiao(s, regiao))
+                    .description("Share of second-level cache reads served from the region")
+                    .tag("region", regiao)
+                    .register(meterRegistry);
+        }
+
+        Gauge.builder("hibernate.cache.entity.hit.ratio", statistics,
+                        s -> taxa(s.getSecondLevelCacheHitCount(), s.getSecondLevelCacheMissCount()))
+                .description("Share of entity and collection loads served from the second-level cache")
+                .register(meterRegistry);
+
+        Gauge.builder("hibernate.cache.query.hit.ratio", statistics,
+                        s -> taxa(s.getQueryCacheHitCount(), s.getQueryCacheMissCount()))
+                .description("Share of cacheable query executions served from the query cache")
+                .register(meterRegistry);
+    }
+
+
+    private static double taxaDaRegiao(Statistics statistics, String regiao) {
+        CacheRegionStatistics regionStatistics = statistics.getCacheRegionStatistics(regiao);
+        if (regionStatistics == null) {
+            return Double.NaN;
+        }
+        return taxa(regionStatistics.getHitCount(), regionStatistics.getMissCount());
+    }
+
+
+    // NaN until the cache has been read at all, so an idle region does not show up as a 0% hit ratio
+    private static double taxa(long acertos, long falhas) {
+        long total = acertos + falhas;
+        return total == 0 ? Double.NaN : (double) acertos / total;
+    }
+}
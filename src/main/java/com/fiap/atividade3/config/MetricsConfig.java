@@ -0,0 +1,41 @@
+package com.fiap.atividade3.config;
+
+import com.fiap.atividade3.repository.ConsultaRepository;
+import com.fiap.atividade3.repository.DiretorioEnfermeiroRepository;
+import com.fiap.atividade3.repository.DiretorioMedicoRepository;
+import com.fiap.atividade3.repository.DiretorioPacienteRepository;
+import com.fiap.atividade3.repository.RepositoryMetricsInterceptor;
+import com.fiap.atividade3.repository.UsuarioRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+
+import java.util.Set;
+
+@Configuration
+public class MetricsConfig {
+
+    private static final Set<Class<?>> REPOSITORIOS_MONITORADOS = Set.of(ConsultaRepository.class, UsuarioRepository.class,
+            DiretorioMedicoRepository.class, DiretorioEnfermeiroRepository.class, DiretorioPacienteRepository.class);
+
+    // Static and lazy on the registry: post-processors are created before regular beans
+    @Bean
+    public static BeanPostProcessor repositoryMetricsPostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean
+                        && REPOSITORIOS_MONITORADOS.contains(factoryBean.getObjectType())) {
+                    String repository = factoryBean.getObjectType().getSimpleName();
+                    factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                            (proxyFactory, repositoryInformation) ->
+                                    proxyFactory.addAdvice(new RepositoryMetricsInterceptor(repository, meterRegistry))));
+                }
+                return bean;
+            }
+        };
+    }
+}
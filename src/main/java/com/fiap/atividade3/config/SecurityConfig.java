@@ -1,13 +1,14 @@
 package com.fiap.atividade3.config;
 
+import com.fiap.atividade3.security.BoundedPasswordEncoder;
 import com.fiap.atividade3.security.JwtAuthenticationFilter;
-import com.fiap.atividade3.service.CustomUserDetailsService;
+import com.fiap.atividade3.security.RateLimitFilter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
-import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
@@ -28,29 +29,35 @@ import java.util.Arrays;
 public class SecurityConfig {
 
     @Autowired
-    private CustomUserDetailsService userDetailsService;
+    private JwtAuthenticationFilter jwtAuthenticationFilter;
 
     @Autowired
-    private JwtAuthenticationFilter jwtAuthenticationFilter;
+    private RateLimitFilter rateLimitFilter;
 
-    @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
-    }
+    @Value("${senha.hash.bcrypt-strength:10}")
+    private int bcryptStrength;
 
-    @Bean
-    public DaoAuthenticationProvider authenticationProvider() {
-        DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
-        authProvider.setUserDetailsService(userDetailsService);
-        authProvider.setPasswordEncoder(passwordEncoder());
-        return authProvider;
-    }
+    @Value("${senha.hash.max-concurrency:0}")
+    private int hashMaxConcurrency;
+
+    @Value("${senha.hash.queue-capacity:32}")
+    private int hashQueueCapacity;
+
+    @Value("${senha.hash.timeout-ms:5000}")
+    private long hashTimeoutMs;
 
     @Bean
-    public AuthenticationManager authenticationManager(AuthenticationConfiguration config) throws Exception {
-        return config.getAuthenticationManager();
+    public PasswordEncoder passwordEncoder(MeterRegistry meterRegistry) {
+        int maxConcurrency = hashMaxConcurrency > 0 ? hashMaxConcurrency : Runtime.getRuntime().availableProcessors();
+        return new BoundedPasswordEncoder(
+                new BCryptPasswordEncoder(bcryptStrength),
+                maxConcurrency,
+                hashQueueCapacity,
+                hashTimeoutMs,
+                meterRegistry);
     }
 
+    // Login is handled by AuthService (lookup, BCrypt check, rehash, signing); requests authenticate with the JWT filter
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         http
@@ -61,8 +68,9 @@ public class SecurityConfig {
                         // Temporarily allow all requests for testing GraphQL endpoints
                         .anyRequest().permitAll()
                 )
-                .authenticationProvider(authenticationProvider())
-                .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+                .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
+                // After authentication so limits can be keyed by user
+                .addFilterAfter(rateLimitFilter, JwtAuthenticationFilter.class);
 
         // Atualização para permitir frames da mesma origem
         http.headers(headers -> headers.frameOptions(frameOptions -> frameOptions.sameOrigin()));
@@ -70,6 +78,14 @@ public class SecurityConfig {
         return http.build();
     }
 
+    // Only run the rate limit filter inside the security chain, not as a plain servlet filter
+    @Bean
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilterRegistration() {
+        FilterRegistrationBean<RateLimitFilter> registration = new FilterRegistrationBean<>(rateLimitFilter);
+        registration.setEnabled(false);
+        return registration;
+    }
+
     @Bean
     public CorsConfigurationSource corsConfigurationSource() {
         CorsConfiguration configuration = new CorsConfiguration();
@@ -0,0 +1,22 @@
+package com.fiap.atividade3.diretorio.busca;
+
+import com.fiap.atividade3.model.enums.UserRole;
+
+import java.util.List;
+
+
+// Accent-insensitive, typo-tolerant name search over the flat directory tables
+public interface BuscaPorNome {
+
+    // Ids of the matching active users of the role, most relevant first
+    List<Long> buscar(UserRole role, String nome, int limite);
+
+
+    static String tabela(UserRole role) {
+        return switch (role) {
+            case MEDICO -> "diretorio_medicos";
+            case ENFERMEIRO -> "diretorio_enfermeiros";
+            case PACIENTE -> "diretorio_pacientes";
+        };
+    }
+}
@@ -0,0 +1,144 @@
+package com.fiap.atividade3.diretorio.busca;
+
+import com.fiap.atividade3.model.enums.UserRole;
+import com.fiap.atividade3.service.event.UsuarioAlteradoEvent;
+import com.fiap.atividade3.service.event.UsuariosRegistradosEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+
+// In-process trigram index for databases without pg_trgm (H2). Loaded from the directory tables at startup
+// and kept current by the same events that maintain those tables. A name's score is the share of the search
+// term's trigrams it contains, which tracks pg_trgm word similarity closely enough for development and tests.
+public class NgramBuscaPorNome implements BuscaPorNome {
+
+    private static final Logger logger = LoggerFactory.getLogger(NgramBuscaPorNome.class);
+
+    private static final int IDS_POR_COMANDO = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final double limiar;
+
+    private final Map<UserRole, Indice> indices = new EnumMap<>(UserRole.class);
+
+    public NgramBuscaPorNome(JdbcTemplate jdbcTemplate, double limiar) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.limiar = limiar;
+        for (UserRole role : UserRole.values()) {
+            indices.put(role, new Indice());
+        }
+    }
+
+
+    @Override
+    public List<Long> buscar(UserRole role, String nome, int limite) {
+        return indices.get(role).buscar(Trigramas.de(nome), limiar, limite);
+    }
+
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void carregar() {
+        for (UserRole role : UserRole.values()) {
+            Indice indice = indices.get(role);
+            jdbcTemplate.query("SELECT usuario_id, nome FROM " + BuscaPorNome.tabela(role),
+                    (RowCallbackHandler) rs -> indice.adicionar(rs.getLong(1), rs.getString(2)));
+            logger.info("Name search index loaded: {} {} entries", indice.tamanho(), role);
+        }
+    }
+
+
+    // After commit, when the directory row written before commit is visible
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUsuarioAlterado(UsuarioAlteradoEvent event) {
+        indices.get(event.getRole()).remover(event.getUsuarioId());
+        if (event.isAtivo()) {
+            indexar(event.getRole(), List.of(event.getUsuarioId()));
+        }
+    }
+
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUsuariosRegistrados(UsuariosRegistradosEvent event) {
+        indexar(event.getRole(), event.getUsuarioIds());
+    }
+
+
+    private void indexar(UserRole role, List<Long> ids) {
+        Indice indice = indices.get(role);
+        for (int inicio = 0; inicio < ids.size(); inicio += IDS_POR_COMANDO) {
+            List<Long> bloco = ids.subList(inicio, Math.min(ids.size(), inicio + IDS_POR_COMANDO));
+            jdbcTemplate.query("SELECT usuario_id, nome FROM " + BuscaPorNome.tabela(role)
+                            + " WHERE usuario_id IN (" + String.join(", ", Collections.nCopies(bloco.size(), "?")) + ")",
+                    (RowCallbackHandler) rs -> indice.adicionar(rs.getLong(1), rs.getString(2)),
+                    bloco.toArray());
+        }
+    }
+
+
+    private static class Indice {
+
+        private final Map<String, Set<Long>> idsPorTrigrama = new ConcurrentHashMap<>();
+
+        private final Map<Long, Set<String>> trigramasPorId = new ConcurrentHashMap<>();
+
+        void adicionar(long id, String nome) {
+            remover(id);
+            Set<String> trigramas = Trigramas.de(nome);
+            trigramasPorId.put(id, trigramas);
+            for (String trigrama : trigramas) {
+                idsPorTrigrama.computeIfAbsent(trigrama, chave -> ConcurrentHashMap.newKeySet()).add(id);
+            }
+        }
+
+        void remover(long id) {
+            Set<String> trigramas = trigramasPorId.remove(id);
+            if (trigramas == null) {
+                return;
+            }
+            for (String trigrama : trigramas) {
+                Set<Long> ids = idsPorTrigrama.get(trigrama);
+                if (ids != null) {
+                    ids.remove(id);
+                }
+            }
+        }
+
+        int tamanho() {
+            return trigramasPorId.size();
+        }
+
+        List<Long> buscar(Set<String> termo, double limiar, int limite) {
+            if (termo.isEmpty()) {
+                return List.of();
+            }
+            Map<Long, Integer> comuns = new HashMap<>();
+            for (String trigrama : termo) {
+                for (Long id : idsPorTrigrama.getOrDefault(trigrama, Set.of())) {
+                    comuns.merge(id, 1, Integer::sum);
+                }
+            }
+            int minimo = (int) Math.ceil(limiar * termo.size());
+            return comuns.entrySet().stream()
+                    .filter(entrada -> entrada.getValue() >= minimo)
+                    .sorted(Map.Entry.<Long, Integer>comparingByValue().reversed()
+                            .thenComparing(Map.Entry.<Long, Integer>comparingByKey()))
+                    .limit(limite)
+                    .map(Map.Entry::getKey)
+                    .toList();
+        }
+    }
+}
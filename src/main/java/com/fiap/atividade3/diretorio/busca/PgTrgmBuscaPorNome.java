@@ -0,0 +1,38 @@
+package com.fiap.atividade3.diretorio.busca;
+
+import com.fiap.atividade3.model.enums.UserRole;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+
+// PostgreSQL: pg_trgm word similarity against the unaccented name, answered by the GIN indexes of migration V6
+public class PgTrgmBuscaPorNome implements BuscaPorNome {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final double limiar;
+
+    public PgTrgmBuscaPorNome(JdbcTemplate jdbcTemplate, double limiar) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.limiar = limiar;
+    }
+
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Long> buscar(UserRole role, String nome, int limite) {
+        // The <% operator reads its threshold from this setting; is_local = true scopes it to the transaction,
+        // so the pooled connection goes back with the server default
+        jdbcTemplate.queryForObject("SELECT set_config('pg_trgm.word_similarity_threshold', ?, true)",
+                String.class, String.valueOf(limiar));
+
+        String termo = Trigramas.normalizar(nome);
+        return jdbcTemplate.queryForList("SELECT usuario_id FROM " + BuscaPorNome.tabela(role)
+                        + " WHERE ? <% f_unaccent(nome_busca)"
+                        + " ORDER BY word_similarity(?, f_unaccent(nome_busca)) DESC, usuario_id"
+                        + " LIMIT ?",
+                Long.class, termo, termo, limite);
+    }
+}
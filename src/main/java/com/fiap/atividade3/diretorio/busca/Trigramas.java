@@ -0,0 +1,40 @@
+package com.fiap.atividade3.diretorio.busca;
+
+import java.text.Normalizer;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+
+// Trigram extraction as pg_trgm does it: each word padded with two spaces before and one after,
+// so "José" and "jose" both become {"  j", " jo", "jos", "ose", "se "}
+public final class Trigramas {
+
+    private static final Pattern ACENTOS = Pattern.compile("\\p{M}+");
+
+    private static final Pattern SEPARADORES = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private Trigramas() {}
+
+
+    public static String normalizar(String texto) {
+        String semAcentos = ACENTOS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("");
+        return semAcentos.toLowerCase(Locale.ROOT).trim();
+    }
+
+
+    public static Set<String> de(String texto) {
+        Set<String> trigramas = new HashSet<>();
+        for (String palavra : SEPARADORES.split(normalizar(texto))) {
+            if (palavra.isEmpty()) {
+                continue;
+            }
+            String comBordas = "  " + palavra + " ";
+            for (int i = 0; i + 3 <= comBordas.length(); i++) {
+                trigramas.add(comBordas.substring(i, i + 3));
+            }
+        }
+        return trigramas;
+    }
+}
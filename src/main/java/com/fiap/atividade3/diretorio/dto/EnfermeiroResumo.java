@@ -0,0 +1,76 @@
+package com.fiap.atividade3.diretorio.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fiap.atividade3.model.entity.Enfermeiro;
+
+import java.time.LocalDateTime;
+
+public final class EnfermeiroResumo {
+
+    private final Long id;
+    private final String nome;
+    private final String email;
+    private final String coren;
+    private final String setor;
+    private final LocalDateTime createdAt;
+    private final LocalDateTime updatedAt;
+
+    private EnfermeiroResumo(Long id, String nome, String email, String coren, String setor,
+                             LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this.id = id;
+        this.nome = nome;
+        this.email = email;
+        this.coren = coren;
+        this.setor = setor;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
+
+    public static EnfermeiroResumo de(Enfermeiro enfermeiro) {
+        return new EnfermeiroResumo(enfermeiro.getId(), enfermeiro.getNome(), enfermeiro.getEmail(), enfermeiro.getCoren(),
+                enfermeiro.getSetor(), enfermeiro.getCreatedAt(), enfermeiro.getUpdatedAt());
+    }
+
+    public Enfermeiro paraEnfermeiro() {
+        Enfermeiro enfermeiro = new Enfermeiro();
+        enfermeiro.setId(id);
+        enfermeiro.setNome(nome);
+        enfermeiro.setEmail(email);
+        enfermeiro.setCoren(coren);
+        enfermeiro.setSetor(setor);
+        enfermeiro.setCreatedAt(createdAt);
+        enfermeiro.setUpdatedAt(updatedAt);
+        enfermeiro.setActive(true);
+        return enfermeiro;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getNome() {
+        return nome;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getCoren() {
+        return coren;
+    }
+
+    public String getSetor() {
+        return setor;
+    }
+
+    @JsonIgnore
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    @JsonIgnore
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+}
@@ -0,0 +1,79 @@
+package com.fiap.atividade3.diretorio.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fiap.atividade3.model.entity.Medico;
+
+import java.time.LocalDateTime;
+
+// Directory entry as served over REST; entities are not serialized directly because they carry credentials.
+// Immutable, so the directory cache can hand the same instance to every request
+public final class MedicoResumo {
+
+    private final Long id;
+    private final String nome;
+    private final String email;
+    private final String crm;
+    private final String especialidade;
+    private final LocalDateTime createdAt;
+    private final LocalDateTime updatedAt;
+
+    private MedicoResumo(Long id, String nome, String email, String crm, String especialidade,
+                         LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this.id = id;
+        this.nome = nome;
+        this.email = email;
+        this.crm = crm;
+        this.especialidade = especialidade;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
+
+    public static MedicoResumo de(Medico medico) {
+        return new MedicoResumo(medico.getId(), medico.getNome(), medico.getEmail(), medico.getCrm(),
+                medico.getEspecialidade(), medico.getCreatedAt(), medico.getUpdatedAt());
+    }
+
+    // A new, unmanaged instance per call for the GraphQL Medico type
+    public Medico paraMedico() {
+        Medico medico = new Medico();
+        medico.setId(id);
+        medico.setNome(nome);
+        medico.setEmail(email);
+        medico.setCrm(crm);
+        medico.setEspecialidade(especialidade);
+        medico.setCreatedAt(createdAt);
+        medico.setUpdatedAt(updatedAt);
+        medico.setActive(true);
+        return medico;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getNome() {
+        return nome;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getCrm() {
+        return crm;
+    }
+
+    public String getEspecialidade() {
+        return especialidade;
+    }
+
+    @JsonIgnore
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    @JsonIgnore
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+}
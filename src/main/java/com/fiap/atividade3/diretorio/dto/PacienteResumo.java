@@ -0,0 +1,95 @@
+package com.fiap.atividade3.diretorio.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fiap.atividade3.model.entity.Paciente;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// cpf and endereco are kept for the GraphQL Paciente type but left out of the REST listing
+public final class PacienteResumo {
+
+    private final Long id;
+    private final String nome;
+    private final String email;
+    private final String telefone;
+    private final LocalDate dataNascimento;
+    private final String cpf;
+    private final String endereco;
+    private final LocalDateTime createdAt;
+    private final LocalDateTime updatedAt;
+
+    private PacienteResumo(Long id, String nome, String email, String telefone, LocalDate dataNascimento,
+                           String cpf, String endereco, LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this.id = id;
+        this.nome = nome;
+        this.email = email;
+        this.telefone = telefone;
+        this.dataNascimento = dataNascimento;
+        this.cpf = cpf;
+        this.endereco = endereco;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
+
+    public static PacienteResumo de(Paciente paciente) {
+        return new PacienteResumo(paciente.getId(), paciente.getNome(), paciente.getEmail(), paciente.getTelefone(),
+                paciente.getDataNascimento(), paciente.getCpf(), paciente.getEndereco(),
+                paciente.getCreatedAt(), paciente.getUpdatedAt());
+    }
+
+    public Paciente paraPaciente() {
+        Paciente paciente = new Paciente();
+        paciente.setId(id);
+        paciente.setNome(nome);
+        paciente.setEmail(email);
+        paciente.setTelefone(telefone);
+        paciente.setDataNascimento(dataNascimento);
+        paciente.setCpf(cpf);
+        paciente.setEndereco(endereco);
+        paciente.setCreatedAt(createdAt);
+        paciente.setUpdatedAt(updatedAt);
+        paciente.setActive(true);
+        return paciente;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getNome() {
+        return nome;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getTelefone() {
+        return telefone;
+    }
+
+    public LocalDate getDataNascimento() {
+        return dataNascimento;
+    }
+
+    @JsonIgnore
+    public String getCpf() {
+        return cpf;
+    }
+
+    @JsonIgnore
+    public String getEndereco() {
+        return endereco;
+    }
+
+    @JsonIgnore
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    @JsonIgnore
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+}
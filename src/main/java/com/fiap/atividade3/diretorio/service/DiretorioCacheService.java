@@ -0,0 +1,179 @@
+package com.fiap.atividade3.diretorio.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fiap.atividade3.diretorio.dto.EnfermeiroResumo;
+import com.fiap.atividade3.diretorio.dto.MedicoResumo;
+import com.fiap.atividade3.diretorio.dto.PacienteResumo;
+import com.fiap.atividade3.model.enums.UserRole;
+import com.fiap.atividade3.service.AsyncMessagingService;
+import com.fiap.atividade3.service.event.DiretorioAlteradoEvent;
+import com.fiap.atividade3.service.event.UsuarioAlteradoEvent;
+import com.fiap.atividade3.service.event.UsuariosRegistradosEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+
+// Staff directory results cached per operation and arguments, as immutable *Resumo lists shared by every reader.
+// Every key embeds the version of its role's directory, so a registration or deactivation simply moves readers to
+// new keys; stale entries age out. Each listing carries an ETag hashed from its content, so every node gives the
+// same tag for the same directory, whatever its local version counter says.
+@Service
+public class DiretorioCacheService {
+
+    @Autowired
+    private DiretorioProjecaoService diretorioProjecaoService;
+
+    @Autowired
+    private AsyncMessagingService asyncMessagingService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${diretorio.cache.max-size:1000}")
+    private long cacheMaxSize;
+
+    // Upper bound on staleness should a directory change broadcast from another node be lost
+    @Value("${diretorio.cache.ttl-seconds:300}")
+    private long cacheTtlSeconds;
+
+    private final Map<UserRole, AtomicLong> versoes = new EnumMap<>(UserRole.class);
+
+    private Cache<String, Listagem<?>> resultados;
+
+    @PostConstruct
+    public void init() {
+        for (UserRole role : UserRole.values()) {
+            versoes.put(role, new AtomicLong());
+        }
+        resultados = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfterWrite(Duration.ofSeconds(cacheTtlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, resultados, "diretorio");
+    }
+
+
+    public Listagem<MedicoResumo> medicos() {
+        return buscar(UserRole.MEDICO, "medicos", diretorioProjecaoService::medicos, MedicoResumo::de);
+    }
+
+
+    public Listagem<MedicoResumo> medicosPorEspecialidade(String especialidade) {
+        return buscar(UserRole.MEDICO, "medicosPorEspecialidade",
+                () -> diretorioProjecaoService.medicosPorEspecialidade(especialidade), MedicoResumo::de, especialidade);
+    }
+
+
+    public Listagem<EnfermeiroResumo> enfermeiros() {
+        return buscar(UserRole.ENFERMEIRO, "enfermeiros", diretorioProjecaoService::enfermeiros, EnfermeiroResumo::de);
+    }
+
+
+    public Listagem<EnfermeiroResumo> enfermeirosPorSetor(String setor) {
+        return buscar(UserRole.ENFERMEIRO, "enfermeirosPorSetor",
+                () -> diretorioProjecaoService.enfermeirosPorSetor(setor), EnfermeiroResumo::de, setor);
+    }
+
+
+    public Listagem<PacienteResumo> pacientes() {
+        return buscar(UserRole.PACIENTE, "pacientes", diretorioProjecaoService::pacientes, PacienteResumo::de);
+    }
+
+
+    @SuppressWarnings("unchecked")
+    private <T, R> Listagem<R> buscar(UserRole role, String operacao, Supplier<List<T>> consulta, Function<T, R> resumo,
+                                      Object... argumentos) {
+        return (Listagem<R>) resultados.get(chave(role, operacao, argumentos), key -> {
+            List<R> itens = consulta.get().stream().map(resumo).toList();
+            return new Listagem<>(itens, etag(itens));
+        });
+    }
+
+
+    // Hashed once per cached listing, over the same JSON the controller returns; the rows come ordered by id,
+    // so equal content always gives the same bytes
+    private String etag(List<?> itens) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(itens));
+            return "\"" + HexFormat.of().formatHex(hash, 0, 16) + "\"";
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Não foi possível calcular o ETag do diretório", e);
+        }
+    }
+
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUsuarioAlterado(UsuarioAlteradoEvent event) {
+        alterado(event.getRole());
+    }
+
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUsuariosRegistrados(UsuariosRegistradosEvent event) {
+        alterado(event.getRole());
+    }
+
+
+    // Every node, this one included, bumps the version again when the broadcast arrives; one extra miss at most
+    @EventListener
+    public void onDiretorioAlterado(DiretorioAlteradoEvent event) {
+        versoes.get(event.getRole()).incrementAndGet();
+    }
+
+
+    private void alterado(UserRole role) {
+        versoes.get(role).incrementAndGet();
+        asyncMessagingService.publishDiretorioAlterado(new DiretorioAlteradoEvent(role));
+    }
+
+
+    private String chave(UserRole role, String operacao, Object... argumentos) {
+        return role + ":" + versoes.get(role).get() + ":" + operacao + Arrays.toString(argumentos);
+    }
+
+
+    public static class Listagem<R> {
+
+        private final List<R> itens;
+
+        private final String etag;
+
+        Listagem(List<R> itens, String etag) {
+            this.itens = itens;
+            this.etag = etag;
+        }
+
+        public List<R> getItens() {
+            return itens;
+        }
+
+        public String getEtag() {
+            return etag;
+        }
+    }
+}
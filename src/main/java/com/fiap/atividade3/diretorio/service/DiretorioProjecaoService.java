@@ -0,0 +1,222 @@
+package com.fiap.atividade3.diretorio.service;
+
+import com.fiap.atividade3.diretorio.busca.BuscaPorNome;
+import com.fiap.atividade3.model.entity.DiretorioEnfermeiro;
+import com.fiap.atividade3.model.entity.DiretorioMedico;
+import com.fiap.atividade3.model.entity.DiretorioPaciente;
+import com.fiap.atividade3.model.entity.Enfermeiro;
+import com.fiap.atividade3.model.entity.Medico;
+import com.fiap.atividade3.model.entity.Paciente;
+import com.fiap.atividade3.model.entity.Usuario;
+import com.fiap.atividade3.model.enums.UserRole;
+import com.fiap.atividade3.repository.DiretorioEnfermeiroRepository;
+import com.fiap.atividade3.repository.DiretorioMedicoRepository;
+import com.fiap.atividade3.repository.DiretorioPacienteRepository;
+import com.fiap.atividade3.repository.UsuarioRepository;
+import com.fiap.atividade3.service.event.UsuarioAlteradoEvent;
+import com.fiap.atividade3.service.event.UsuariosRegistradosEvent;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.query.NativeQuery;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+
+// Flat, per-role directory tables read by the directory queries instead of joining usuarios with the subtype table.
+// Rows are written in the same transaction as the registration or deactivation that changes them.
+@Service
+public class DiretorioProjecaoService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DiretorioProjecaoService.class);
+
+    // Bounded so the IN list stays well under the bind parameter limits of the drivers
+    private static final int IDS_POR_COMANDO = 1000;
+
+    // Listings in a stable order, so the same rows always serialize (and hash into the ETag) the same way
+    private static final Sort POR_USUARIO = Sort.by("usuarioId");
+
+    private static final String COPIAR_MEDICOS =
+            "INSERT INTO diretorio_medicos (usuario_id, nome, nome_busca, email, crm, especialidade, created_at, updated_at) "
+            + "SELECT u.id, u.nome, LOWER(u.nome), u.email, m.crm, m.especialidade, u.created_at, u.updated_at "
+            + "FROM usuarios u JOIN medicos m ON m.usuario_id = u.id WHERE u.active = TRUE";
+
+    private static final String COPIAR_ENFERMEIROS =
+            "INSERT INTO diretorio_enfermeiros (usuario_id, nome, nome_busca, email, coren, setor, created_at, updated_at) "
+            + "SELECT u.id, u.nome, LOWER(u.nome), u.email, e.coren, e.setor, u.created_at, u.updated_at "
+            + "FROM usuarios u JOIN enfermeiros e ON e.usuario_id = u.id WHERE u.active = TRUE";
+
+    private static final String COPIAR_PACIENTES =
+            "INSERT INTO diretorio_pacientes (usuario_id, nome, nome_busca, email, cpf, data_nascimento, telefone, endereco, created_at, updated_at) "
+            + "SELECT u.id, u.nome, LOWER(u.nome), u.email, p.cpf, p.data_nascimento, p.telefone, p.endereco, u.created_at, u.updated_at "
+            + "FROM usuarios u JOIN pacientes p ON p.usuario_id = u.id WHERE u.active = TRUE";
+
+    @Autowired
+    private DiretorioMedicoRepository diretorioMedicoRepository;
+
+    @Autowired
+    private DiretorioEnfermeiroRepository diretorioEnfermeiroRepository;
+
+    @Autowired
+    private DiretorioPacienteRepository diretorioPacienteRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private BuscaPorNome buscaPorNome;
+
+    @Value("${busca.nome.limite-padrao:20}")
+    private int limitePadrao;
+
+    @Value("${busca.nome.limite-maximo:100}")
+    private int limiteMaximo;
+
+
+    public List<Medico> medicos() {
+        return diretorioMedicoRepository.findAll(POR_USUARIO).stream().map(DiretorioMedico::paraMedico).toList();
+    }
+
+
+    public List<Medico> medicosPorEspecialidade(String especialidade) {
+        return diretorioMedicoRepository.findByEspecialidade(especialidade, POR_USUARIO).stream().map(DiretorioMedico::paraMedico).toList();
+    }
+
+
+    public List<Medico> buscarMedicosPorNome(String nome, Integer limite) {
+        List<Long> ids = buscaPorNome.buscar(UserRole.MEDICO, nome, limite(limite));
+        return emOrdem(ids, diretorioMedicoRepository.findAllById(ids), DiretorioMedico::getUsuarioId).stream()
+                .map(DiretorioMedico::paraMedico).toList();
+    }
+
+
+    public List<Enfermeiro> enfermeiros() {
+        return diretorioEnfermeiroRepository.findAll(POR_USUARIO).stream().map(DiretorioEnfermeiro::paraEnfermeiro).toList();
+    }
+
+
+    public List<Enfermeiro> enfermeirosPorSetor(String setor) {
+        return diretorioEnfermeiroRepository.findBySetor(setor, POR_USUARIO).stream().map(DiretorioEnfermeiro::paraEnfermeiro).toList();
+    }
+
+
+    public List<Enfermeiro> buscarEnfermeirosPorNome(String nome, Integer limite) {
+        List<Long> ids = buscaPorNome.buscar(UserRole.ENFERMEIRO, nome, limite(limite));
+        return emOrdem(ids, diretorioEnfermeiroRepository.findAllById(ids), DiretorioEnfermeiro::getUsuarioId).stream()
+                .map(DiretorioEnfermeiro::paraEnfermeiro).toList();
+    }
+
+
+    public List<Paciente> pacientes() {
+        return diretorioPacienteRepository.findAll(POR_USUARIO).stream().map(DiretorioPaciente::paraPaciente).toList();
+    }
+
+
+    public List<Paciente> buscarPacientesPorNome(String nome, Integer limite) {
+        List<Long> ids = buscaPorNome.buscar(UserRole.PACIENTE, nome, limite(limite));
+        return emOrdem(ids, diretorioPacienteRepository.findAllById(ids), DiretorioPaciente::getUsuarioId).stream()
+                .map(DiretorioPaciente::paraPaciente).toList();
+    }
+
+
+    // Before commit, so the directory row commits or rolls back together with the user it mirrors
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onUsuarioAlterado(UsuarioAlteradoEvent event) {
+        Usuario usuario = usuarioRepository.findById(event.getUsuarioId()).orElse(null);
+        if (usuario == null || !usuario.getActive()) {
+            remover(event);
+            return;
+        }
+
+        if (usuario instanceof Medico medico) {
+            diretorioMedicoRepository.save(DiretorioMedico.de(medico));
+        } else if (usuario instanceof Enfermeiro enfermeiro) {
+            diretorioEnfermeiroRepository.save(DiretorioEnfermeiro.de(enfermeiro));
+        } else if (usuario instanceof Paciente paciente) {
+            diretorioPacienteRepository.save(DiretorioPaciente.de(paciente));
+        }
+    }
+
+
+    // Bulk registrations copy their rows with a few INSERT ... SELECT statements instead of one upsert per user
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onUsuariosRegistrados(UsuariosRegistradosEvent event) {
+        String copiar = switch (event.getRole()) {
+            case MEDICO -> COPIAR_MEDICOS;
+            case ENFERMEIRO -> COPIAR_ENFERMEIROS;
+            case PACIENTE -> COPIAR_PACIENTES;
+        };
+        String tabela = BuscaPorNome.tabela(event.getRole());
+        List<Long> ids = event.getUsuarioIds();
+        for (int inicio = 0; inicio < ids.size(); inicio += IDS_POR_COMANDO) {
+            List<Long> bloco = ids.subList(inicio, Math.min(ids.size(), inicio + IDS_POR_COMANDO));
+            executar(copiar + " AND u.id IN (" + String.join(", ", Collections.nCopies(bloco.size(), "?")) + ")",
+                    tabela, bloco);
+        }
+    }
+
+
+    // Repopulates every directory table from the normalized tables, for writes that bypass the registration service
+    @Transactional
+    public void reconstruir() {
+        executar("DELETE FROM diretorio_medicos", "diretorio_medicos", List.of());
+        int medicos = executar(COPIAR_MEDICOS, "diretorio_medicos", List.of());
+        executar("DELETE FROM diretorio_enfermeiros", "diretorio_enfermeiros", List.of());
+        int enfermeiros = executar(COPIAR_ENFERMEIROS, "diretorio_enfermeiros", List.of());
+        executar("DELETE FROM diretorio_pacientes", "diretorio_pacientes", List.of());
+        int pacientes = executar(COPIAR_PACIENTES, "diretorio_pacientes", List.of());
+        logger.info("Directory rebuilt: {} doctors, {} nurses, {} patients", medicos, enfermeiros, pacientes);
+    }
+
+
+    // Run through Hibernate with the table named as the query space: an unqualified native update counts as
+    // touching every table and would evict the whole second-level cache, users included
+    private int executar(String sql, String tabela, List<Long> parametros) {
+        NativeQuery<?> query = entityManager.createNativeQuery(sql).unwrap(NativeQuery.class);
+        query.addSynchronizedQuerySpace(tabela);
+        for (int i = 0; i < parametros.size(); i++) {
+            query.setParameter(i + 1, parametros.get(i));
+        }
+        return query.executeUpdate();
+    }
+
+
+    private void remover(UsuarioAlteradoEvent event) {
+        switch (event.getRole()) {
+            case MEDICO -> diretorioMedicoRepository.deleteById(event.getUsuarioId());
+            case ENFERMEIRO -> diretorioEnfermeiroRepository.deleteById(event.getUsuarioId());
+            case PACIENTE -> diretorioPacienteRepository.deleteById(event.getUsuarioId());
+        }
+    }
+
+
+    private int limite(Integer limite) {
+        if (limite == null) {
+            return limitePadrao;
+        }
+        return Math.max(1, Math.min(limite, limiteMaximo));
+    }
+
+
+    // findAllById returns rows in no particular order; the search ranking is restored here
+    private static <T> List<T> emOrdem(List<Long> ids, List<T> linhas, Function<T, Long> id) {
+        Map<Long, T> porId = linhas.stream().collect(Collectors.toMap(id, Function.identity()));
+        return ids.stream().map(porId::get).filter(Objects::nonNull).toList();
+    }
+}
@@ -0,0 +1,66 @@
+package com.fiap.atividade3.diretorio.web;
+
+import com.fiap.atividade3.diretorio.dto.EnfermeiroResumo;
+import com.fiap.atividade3.diretorio.dto.MedicoResumo;
+import com.fiap.atividade3.diretorio.dto.PacienteResumo;
+import com.fiap.atividade3.diretorio.service.DiretorioCacheService;
+import com.fiap.atividade3.diretorio.service.DiretorioCacheService.Listagem;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.List;
+
+
+// Conditional GET for the staff directory: an unchanged directory is answered with 304 from the cached listing's tag
+@RestController
+@RequestMapping("/diretorio")
+public class DiretorioController {
+
+    @Autowired
+    private DiretorioCacheService diretorioCacheService;
+
+    @GetMapping("/medicos")
+    @PreAuthorize("hasRole('MEDICO') or hasRole('ENFERMEIRO')")
+    public ResponseEntity<List<MedicoResumo>> medicos(@RequestParam(required = false) String especialidade, WebRequest request) {
+        if (especialidade != null && !especialidade.isBlank()) {
+            return responder(request, diretorioCacheService.medicosPorEspecialidade(especialidade));
+        }
+        return responder(request, diretorioCacheService.medicos());
+    }
+
+    @GetMapping("/enfermeiros")
+    @PreAuthorize("hasRole('MEDICO') or hasRole('ENFERMEIRO')")
+    public ResponseEntity<List<EnfermeiroResumo>> enfermeiros(@RequestParam(required = false) String setor, WebRequest request) {
+        if (setor != null && !setor.isBlank()) {
+            return responder(request, diretorioCacheService.enfermeirosPorSetor(setor));
+        }
+        return responder(request, diretorioCacheService.enfermeiros());
+    }
+
+    @GetMapping("/pacientes")
+    @PreAuthorize("hasRole('MEDICO') or hasRole('ENFERMEIRO')")
+    public ResponseEntity<List<PacienteResumo>> pacientes(WebRequest request) {
+        return responder(request, diretorioCacheService.pacientes());
+    }
+
+    // Tag and body come from the same cached listing, so a 200 never carries the tag of another version
+    private <R> ResponseEntity<List<R>> responder(WebRequest request, Listagem<R> listagem) {
+        if (request.checkNotModified(listagem.getEtag())) {
+            // Status and ETag already set on the response
+            return null;
+        }
+
+        return ResponseEntity.ok()
+                .eTag(listagem.getEtag())
+                // Clients may keep the body but must revalidate on every use
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(listagem.getItens());
+    }
+}
@@ -0,0 +1,221 @@
+package com.fiap.atividade3.exportacao.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+
+// Writes consultations straight from a forward-only JDBC cursor to the output stream:
+// one row in memory at a time, whatever the size of the export
+@Service
+public class ExportacaoService {
+
+    public enum Formato { NDJSON, CSV }
+
+    private static final String[] COLUNAS = {
+            "id", "data_consulta", "motivo", "diagnostico", "prescricao", "observacoes",
+            "paciente_id", "paciente_nome", "medico_id", "medico_nome", "especialidade",
+            "enfermeiro_id", "enfermeiro_nome", "setor"
+    };
+
+    private static final String SELECT = """
+            SELECT c.id, c.data_consulta, c.motivo, c.diagnostico, c.prescricao, c.observacoes,
+                   c.paciente_id, up.nome AS paciente_nome, c.medico_id, um.nome AS medico_nome, m.especialidade,
+                   c.enfermeiro_id, ue.nome AS enfermeiro_nome, e.setor
+            FROM consultas c
+            JOIN usuarios up ON up.id = c.paciente_id
+            JOIN usuarios um ON um.id = c.medico_id
+            JOIN medicos m ON m.usuario_id = c.medico_id
+            LEFT JOIN usuarios ue ON ue.id = c.enfermeiro_id
+            LEFT JOIN enfermeiros e ON e.usuario_id = c.enfermeiro_id
+            WHERE 1 = 1""";
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${exportacao.fetch-size:1000}")
+    private int fetchSize;
+
+    private JdbcTemplate cursor;
+
+    @PostConstruct
+    public void init() {
+        cursor = new JdbcTemplate(dataSource);
+        cursor.setFetchSize(fetchSize);
+    }
+
+
+    // Read-only transaction: PostgreSQL only uses a server-side cursor with autocommit off
+    @Transactional(readOnly = true)
+    public long exportar(FiltroExportacao filtro, Formato formato, OutputStream saida) throws IOException {
+        List<Object> parametros = new ArrayList<>();
+        String sql = SELECT + condicoes(filtro, parametros) + " ORDER BY c.data_consulta, c.id";
+
+        long inicio = System.nanoTime();
+        long linhas;
+        if (formato == Formato.CSV) {
+            linhas = exportarCsv(sql, parametros, saida);
+        } else {
+            linhas = exportarNdjson(sql, parametros, saida);
+        }
+        registrar(formato, linhas, System.nanoTime() - inicio);
+        return linhas;
+    }
+
+
+    private long exportarNdjson(String sql, List<Object> parametros, OutputStream saida) throws IOException {
+        long[] linhas = {0};
+        // AUTO_CLOSE_TARGET off: the servlet stream belongs to the container
+        try (JsonGenerator json = objectMapper.getFactory().createGenerator(saida)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)) {
+            // Jackson separates root values with a space by default
+            json.setRootValueSeparator(new SerializedString("\n"));
+            cursor.query(sql, (RowCallbackHandler) rs -> {
+                try {
+                    json.writeStartObject();
+                    for (int i = 0; i < COLUNAS.length; i++) {
+                        escreverCampo(json, COLUNAS[i], rs, i + 1);
+                    }
+                    json.writeEndObject();
+                    linhas[0]++;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }, parametros.toArray());
+            // The separator only goes between values; NDJSON also terminates the last line
+            if (linhas[0] > 0) {
+                json.writeRaw('\n');
+            }
+        }
+        return linhas[0];
+    }
+
+
+    private long exportarCsv(String sql, List<Object> parametros, OutputStream saida) throws IOException {
+        long[] linhas = {0};
+        Writer writer = new BufferedWriter(new OutputStreamWriter(saida, StandardCharsets.UTF_8));
+        writer.write(String.join(",", COLUNAS));
+        writer.write("\r\n");
+        cursor.query(sql, (RowCallbackHandler) rs -> {
+            try {
+                for (int i = 0; i < COLUNAS.length; i++) {
+                    if (i > 0) {
+                        writer.write(',');
+                    }
+                    writer.write(csv(texto(rs, i + 1)));
+                }
+                writer.write("\r\n");
+                linhas[0]++;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, parametros.toArray());
+        writer.flush();
+        return linhas[0];
+    }
+
+
+    private String condicoes(FiltroExportacao filtro, List<Object> parametros) {
+        StringBuilder where = new StringBuilder();
+        if (filtro.getInicio() != null) {
+            where.append(" AND c.data_consulta >= ?");
+            parametros.add(Timestamp.valueOf(filtro.getInicio()));
+        }
+        if (filtro.getFim() != null) {
+            where.append(" AND c.data_consulta <= ?");
+            parametros.add(Timestamp.valueOf(filtro.getFim()));
+        }
+        if (filtro.getMedicoId() != null) {
+            where.append(" AND c.medico_id = ?");
+            parametros.add(filtro.getMedicoId());
+        }
+        if (filtro.getEspecialidade() != null && !filtro.getEspecialidade().isBlank()) {
+            where.append(" AND m.especialidade = ?");
+            parametros.add(filtro.getEspecialidade());
+        }
+        if (filtro.getPacienteId() != null) {
+            where.append(" AND c.paciente_id = ?");
+            parametros.add(filtro.getPacienteId());
+        }
+        return where.toString();
+    }
+
+
+    private void escreverCampo(JsonGenerator json, String nome, ResultSet rs, int coluna) throws IOException, SQLException {
+        Object valor = rs.getObject(coluna);
+        json.writeFieldName(nome);
+        if (valor == null) {
+            json.writeNull();
+        } else if (valor instanceof Number numero) {
+            json.writeNumber(numero.longValue());
+        } else {
+            json.writeString(texto(rs, coluna));
+        }
+    }
+
+
+    private String texto(ResultSet rs, int coluna) throws SQLException {
+        Object valor = rs.getObject(coluna);
+        if (valor instanceof Timestamp timestamp) {
+            return timestamp.toLocalDateTime().toString();
+        }
+        return valor != null ? valor.toString() : "";
+    }
+
+
+    // RFC 4180: quote fields containing separators, quotes or line breaks
+    private String csv(String valor) {
+        if (valor.indexOf(',') < 0 && valor.indexOf('"') < 0 && valor.indexOf('\n') < 0 && valor.indexOf('\r') < 0) {
+            return valor;
+        }
+        return '"' + valor.replace("\"", "\"\"") + '"';
+    }
+
+
+    private void registrar(Formato formato, long linhas, long duracaoNanos) {
+        String tag = formato.name().toLowerCase();
+        meterRegistry.counter("exportacao.linhas", "formato", tag).increment(linhas);
+        Timer.builder("exportacao.duracao")
+                .tag("formato", tag)
+                .register(meterRegistry)
+                .record(duracaoNanos, TimeUnit.NANOSECONDS);
+        if (duracaoNanos > 0) {
+            DistributionSummary.builder("exportacao.throughput")
+                    .baseUnit("rows/s")
+                    .tag("formato", tag)
+                    .register(meterRegistry)
+                    .record(linhas * 1_000_000_000.0 / duracaoNanos);
+        }
+    }
+}
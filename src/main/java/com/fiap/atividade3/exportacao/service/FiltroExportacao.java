@@ -0,0 +1,65 @@
+package com.fiap.atividade3.exportacao.service;
+
+import java.time.LocalDateTime;
+
+// Optional filters of a consultation export; null means "any"
+public class FiltroExportacao {
+
+    private LocalDateTime inicio;
+    private LocalDateTime fim;
+    private Long medicoId;
+    private String especialidade;
+    private Long pacienteId;
+
+    // Constructors
+    public FiltroExportacao() {}
+
+    public FiltroExportacao(LocalDateTime inicio, LocalDateTime fim, Long medicoId, String especialidade, Long pacienteId) {
+        this.inicio = inicio;
+        this.fim = fim;
+        this.medicoId = medicoId;
+        this.especialidade = especialidade;
+        this.pacienteId = pacienteId;
+    }
+
+    // Getters and Setters
+    public LocalDateTime getInicio() {
+        return inicio;
+    }
+
+    public void setInicio(LocalDateTime inicio) {
+        this.inicio = inicio;
+    }
+
+    public LocalDateTime getFim() {
+        return fim;
+    }
+
+    public void setFim(LocalDateTime fim) {
+        this.fim = fim;
+    }
+
+    public Long getMedicoId() {
+        return medicoId;
+    }
+
+    public void setMedicoId(Long medicoId) {
+        this.medicoId = medicoId;
+    }
+
+    public String getEspecialidade() {
+        return especialidade;
+    }
+
+    public void setEspecialidade(String especialidade) {
+        this.especialidade = especialidade;
+    }
+
+    public Long getPacienteId() {
+        return pacienteId;
+    }
+
+    public void setPacienteId(Long pacienteId) {
+        this.pacienteId = pacienteId;
+    }
+}
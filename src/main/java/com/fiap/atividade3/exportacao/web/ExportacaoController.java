@@ -0,0 +1,61 @@
+package com.fiap.atividade3.exportacao.web;
+
+import com.fiap.atividade3.exportacao.service.ExportacaoService;
+import com.fiap.atividade3.exportacao.service.FiltroExportacao;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.zip.GZIPOutputStream;
+
+
+// Bulk export for audits and BI; written on the request thread so no async timeout cuts long exports
+@RestController
+@RequestMapping("/exportacao")
+public class ExportacaoController {
+
+    @Autowired
+    private ExportacaoService exportacaoService;
+
+    @GetMapping("/consultas")
+    @PreAuthorize("hasRole('MEDICO') or hasRole('ENFERMEIRO')")
+    public void exportarConsultas(@RequestParam(defaultValue = "NDJSON") ExportacaoService.Formato formato,
+                                  @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime inicio,
+                                  @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fim,
+                                  @RequestParam(required = false) Long medicoId,
+                                  @RequestParam(required = false) String especialidade,
+                                  @RequestParam(required = false) Long pacienteId,
+                                  @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+                                  HttpServletResponse response) throws IOException {
+        boolean csv = formato == ExportacaoService.Formato.CSV;
+        response.setContentType(csv ? "text/csv;charset=UTF-8" : "application/x-ndjson;charset=UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"consultas." + (csv ? "csv" : "ndjson") + "\"");
+
+        boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+            response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        }
+
+        FiltroExportacao filtro = new FiltroExportacao(inicio, fim, medicoId, especialidade, pacienteId);
+        OutputStream saida = response.getOutputStream();
+        if (gzip) {
+            // syncFlush off: buffers fill and go out as the cursor advances, no need to flush per row
+            try (GZIPOutputStream compactado = new GZIPOutputStream(saida, 64 * 1024)) {
+                exportacaoService.exportar(filtro, formato, compactado);
+            }
+        } else {
+            exportacaoService.exportar(filtro, formato, saida);
+        }
+    }
+}
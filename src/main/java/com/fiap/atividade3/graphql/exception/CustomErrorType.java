@@ -0,0 +1,11 @@
+package com.fiap.atividade3.graphql.exception;
+
+import graphql.ErrorClassification;
+
+
+public enum CustomErrorType implements ErrorClassification {
+    SERVICE_UNAVAILABLE,
+    TOO_MANY_REQUESTS,
+    QUERY_TOO_COMPLEX,
+    PERSISTED_QUERY
+}
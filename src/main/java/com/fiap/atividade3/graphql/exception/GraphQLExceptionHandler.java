@@ -0,0 +1,33 @@
+package com.fiap.atividade3.graphql.exception;
+
+import com.fiap.atividade3.security.PasswordHashingSaturatedException;
+import com.fiap.atividade3.security.RateLimitExceededException;
+import graphql.GraphQLError;
+import graphql.GraphqlErrorBuilder;
+import graphql.schema.DataFetchingEnvironment;
+import org.springframework.graphql.data.method.annotation.GraphQlExceptionHandler;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+
+import java.util.Map;
+
+
+@ControllerAdvice
+public class GraphQLExceptionHandler {
+
+    @GraphQlExceptionHandler
+    public GraphQLError handlePasswordHashingSaturated(PasswordHashingSaturatedException ex, DataFetchingEnvironment env) {
+        return GraphqlErrorBuilder.newError(env)
+                .errorType(CustomErrorType.SERVICE_UNAVAILABLE)
+                .message(ex.getMessage())
+                .build();
+    }
+
+    @GraphQlExceptionHandler
+    public GraphQLError handleRateLimitExceeded(RateLimitExceededException ex, DataFetchingEnvironment env) {
+        return GraphqlErrorBuilder.newError(env)
+                .errorType(CustomErrorType.TOO_MANY_REQUESTS)
+                .message(ex.getMessage())
+                .extensions(Map.of("limit", ex.getLimit(), "retryAfterMs", ex.getRetryAfterMs()))
+                .build();
+    }
+}
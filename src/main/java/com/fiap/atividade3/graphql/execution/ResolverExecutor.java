@@ -0,0 +1,101 @@
+package com.fiap.atividade3.graphql.execution;
+
+import graphql.GraphQLContext;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.hibernate.Hibernate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.Collection;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+
+// Runs blocking resolver work on virtual threads. Two bounds keep database use in check: a global one sized
+// below the connection pool, and one per operation so a single wide query cannot take every connection.
+// The security context and request attributes follow the task, but the request's open-session-in-view
+// EntityManager cannot (it is not thread-safe): a task must return values that need no session afterwards,
+// i.e. DTOs or fully fetched entities whose relations are resolved by batch loaders, never lazy proxies.
+@Component
+public class ResolverExecutor {
+
+    private static final String LIMITE_OPERACAO = ResolverExecutor.class.getName() + ".limite";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${resolver-concurrency.max-global:8}")
+    private int maxGlobal;
+
+    @Value("${resolver-concurrency.max-per-operation:3}")
+    private int maxPorOperacao;
+
+    private ExecutorService executor;
+
+    private Semaphore limiteGlobal;
+
+    @PostConstruct
+    public void init() {
+        executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("graphql-resolver-", 0).factory());
+        limiteGlobal = new Semaphore(maxGlobal);
+        Gauge.builder("graphql.resolver.concurrency.active", limiteGlobal, semaphore -> maxGlobal - semaphore.availablePermits())
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.close();
+    }
+
+
+    public <T> CompletableFuture<T> executar(GraphQLContext graphQLContext, Callable<T> tarefa) {
+        Semaphore limiteOperacao = graphQLContext.computeIfAbsent(LIMITE_OPERACAO, key -> new Semaphore(maxPorOperacao));
+        // Captured on the calling thread; virtual threads do not inherit them
+        SecurityContext securityContext = SecurityContextHolder.getContext();
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+
+        return CompletableFuture.supplyAsync(() -> {
+            // Waiting parks only the virtual thread; the operation permit is taken first so a
+            // saturated operation does not hold global permits while it queues
+            limiteOperacao.acquireUninterruptibly();
+            limiteGlobal.acquireUninterruptibly();
+            SecurityContextHolder.setContext(securityContext);
+            RequestContextHolder.setRequestAttributes(requestAttributes);
+            try {
+                return exigirCarregado(tarefa.call());
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            } finally {
+                RequestContextHolder.resetRequestAttributes();
+                SecurityContextHolder.clearContext();
+                limiteGlobal.release();
+                limiteOperacao.release();
+            }
+        }, executor);
+    }
+
+
+    // Fails here, naming the cause, instead of with a LazyInitializationException once the value is read elsewhere
+    private static <T> T exigirCarregado(T valor) {
+        boolean carregado = Hibernate.isInitialized(valor)
+                && (!(valor instanceof Collection<?> itens) || itens.stream().allMatch(Hibernate::isInitialized));
+        if (!carregado) {
+            throw new IllegalStateException("Resolver returned a lazy proxy from a virtual thread; fetch it before returning");
+        }
+        return valor;
+    }
+}
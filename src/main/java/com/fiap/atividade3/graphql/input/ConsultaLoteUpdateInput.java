@@ -0,0 +1,56 @@
+package com.fiap.atividade3.graphql.input;
+
+import jakarta.validation.constraints.NotNull;
+
+public class ConsultaLoteUpdateInput {
+
+    @NotNull(message = "ID da consulta é obrigatório")
+    private Long id;
+
+    private String diagnostico;
+    private String prescricao;
+    private String observacoes;
+
+    // Constructors
+    public ConsultaLoteUpdateInput() {}
+
+    public ConsultaLoteUpdateInput(Long id, String diagnostico, String prescricao, String observacoes) {
+        this.id = id;
+        this.diagnostico = diagnostico;
+        this.prescricao = prescricao;
+        this.observacoes = observacoes;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getDiagnostico() {
+        return diagnostico;
+    }
+
+    public void setDiagnostico(String diagnostico) {
+        this.diagnostico = diagnostico;
+    }
+
+    public String getPrescricao() {
+        return prescricao;
+    }
+
+    public void setPrescricao(String prescricao) {
+        this.prescricao = prescricao;
+    }
+
+    public String getObservacoes() {
+        return observacoes;
+    }
+
+    public void setObservacoes(String observacoes) {
+        this.observacoes = observacoes;
+    }
+}
@@ -0,0 +1,45 @@
+package com.fiap.atividade3.graphql.instrumentation;
+
+import com.fiap.atividade3.graphql.execution.ResolverExecutor;
+import graphql.execution.instrumentation.InstrumentationState;
+import graphql.execution.instrumentation.SimplePerformantInstrumentation;
+import graphql.execution.instrumentation.parameters.InstrumentationFieldFetchParameters;
+import graphql.language.OperationDefinition;
+import graphql.schema.DataFetcher;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+
+// Root Query fields are independent, so each one is started on its own virtual thread instead of
+// running one after another on the request thread. Mutations keep their serial order.
+public class ConcurrentRootFieldInstrumentation extends SimplePerformantInstrumentation {
+
+    private final ResolverExecutor resolverExecutor;
+
+    public ConcurrentRootFieldInstrumentation(ResolverExecutor resolverExecutor) {
+        this.resolverExecutor = resolverExecutor;
+    }
+
+    @Override
+    public DataFetcher<?> instrumentDataFetcher(DataFetcher<?> dataFetcher,
+                                                InstrumentationFieldFetchParameters parameters,
+                                                InstrumentationState state) {
+        if (parameters.isTrivialDataFetcher()
+                || parameters.getExecutionStepInfo().getPath().getLevel() != 1
+                || parameters.getExecutionContext().getOperationDefinition().getOperation() != OperationDefinition.Operation.QUERY) {
+            return dataFetcher;
+        }
+
+        return env -> resolverExecutor.executar(env.getGraphQlContext(), () -> dataFetcher.get(env))
+                .thenCompose(ConcurrentRootFieldInstrumentation::desembrulhar);
+    }
+
+    // Fetchers that are already asynchronous hand back their own future
+    @SuppressWarnings("unchecked")
+    private static CompletionStage<Object> desembrulhar(Object value) {
+        return value instanceof CompletionStage<?> stage
+                ? (CompletionStage<Object>) stage
+                : CompletableFuture.completedFuture(value);
+    }
+}
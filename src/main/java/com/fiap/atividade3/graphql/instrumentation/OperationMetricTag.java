@@ -0,0 +1,30 @@
+package com.fiap.atividade3.graphql.instrumentation;
+
+import graphql.language.OperationDefinition;
+
+import java.util.Set;
+
+
+// Value of the "operation" tag on the GraphQL meters. The name is chosen by the client, so only operations registered
+// in the persisted query manifest keep theirs; any other name would open a new time series per distinct value
+public class OperationMetricTag {
+
+    public static final String ANONYMOUS = "anonymous";
+
+    public static final String OTHER = "other";
+
+    private final Set<String> registeredOperations;
+
+    public OperationMetricTag(Set<String> registeredOperations) {
+        this.registeredOperations = Set.copyOf(registeredOperations);
+    }
+
+
+    public String of(OperationDefinition operationDefinition) {
+        String name = operationDefinition.getName();
+        if (name == null) {
+            return ANONYMOUS;
+        }
+        return registeredOperations.contains(name) ? name : OTHER;
+    }
+}
@@ -0,0 +1,179 @@
+package com.fiap.atividade3.graphql.instrumentation;
+
+import com.fiap.atividade3.graphql.exception.CustomErrorType;
+import graphql.ExecutionResult;
+import graphql.GraphqlErrorBuilder;
+import graphql.execution.AbortExecutionException;
+import graphql.execution.ExecutionContext;
+import graphql.execution.instrumentation.InstrumentationContext;
+import graphql.execution.instrumentation.InstrumentationState;
+import graphql.execution.instrumentation.SimpleInstrumentationContext;
+import graphql.execution.instrumentation.SimplePerformantInstrumentation;
+import graphql.execution.instrumentation.parameters.InstrumentationExecuteOperationParameters;
+import graphql.normalized.ExecutableNormalizedField;
+import graphql.normalized.ExecutableNormalizedOperation;
+import graphql.schema.GraphQLFieldDefinition;
+import graphql.schema.GraphQLList;
+import graphql.schema.GraphQLNamedType;
+import graphql.schema.GraphQLSchema;
+import graphql.schema.GraphQLType;
+import graphql.schema.GraphQLTypeUtil;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.List;
+import java.util.Map;
+
+
+// Static cost and depth analysis of each operation, enforced before any resolver runs
+public class QueryCostInstrumentation extends SimplePerformantInstrumentation {
+
+    private final QueryCostProperties properties;
+
+    private final MeterRegistry meterRegistry;
+
+    private final OperationMetricTag operationMetricTag;
+
+    // Largest page the connections actually serve (consulta.paginacao.tamanho-maximo)
+    private final int maxPageSize;
+
+    public QueryCostInstrumentation(QueryCostProperties properties, MeterRegistry meterRegistry,
+                                    OperationMetricTag operationMetricTag, int maxPageSize) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.operationMetricTag = operationMetricTag;
+        this.maxPageSize = maxPageSize;
+    }
+
+    @Override
+    public InstrumentationContext<ExecutionResult> beginExecuteOperation(InstrumentationExecuteOperationParameters parameters,
+                                                                        InstrumentationState state) {
+        ExecutionContext executionContext = parameters.getExecutionContext();
+        String operation = operationMetricTag.of(executionContext.getOperationDefinition());
+
+        ExecutableNormalizedOperation normalized = executionContext.getNormalizedQueryTree().get();
+        GraphQLSchema schema = executionContext.getGraphQLSchema();
+
+        int depth = 0;
+        long cost = 0;
+        for (ExecutableNormalizedField field : normalized.getTopLevelFields()) {
+            depth = Math.max(depth, depth(field));
+            cost = saturatedAdd(cost, cost(field, schema));
+        }
+
+        DistributionSummary.builder("graphql.operation.cost")
+                .tag("operation", operation)
+                .register(meterRegistry)
+                .record(cost);
+
+        if (properties.isEnabled()) {
+            if (depth > properties.getMaxDepth()) {
+                reject(operation, "depth", "Consulta excede a profundidade máxima permitida",
+                        Map.of("depth", depth, "maxDepth", properties.getMaxDepth()));
+            }
+            if (cost > properties.getMaxCost()) {
+                reject(operation, "cost", "Consulta excede o custo máximo permitido",
+                        Map.of("cost", cost, "maxCost", properties.getMaxCost()));
+            }
+        }
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        return SimpleInstrumentationContext.whenCompleted((result, throwable) -> sample.stop(
+                Timer.builder("graphql.operation.execution")
+                        .tag("operation", operation)
+                        .register(meterRegistry)));
+    }
+
+
+    private void reject(String operation, String reason, String message, Map<String, Object> extensions) {
+        meterRegistry.counter("graphql.operation.rejected", "operation", operation, "reason", reason).increment();
+        throw new AbortExecutionException(List.of(GraphqlErrorBuilder.newError()
+                .errorType(CustomErrorType.QUERY_TOO_COMPLEX)
+                .message(message)
+                .extensions(extensions)
+                .build()));
+    }
+
+
+    private int depth(ExecutableNormalizedField field) {
+        int deepest = 0;
+        for (ExecutableNormalizedField child : field.getChildren()) {
+            deepest = Math.max(deepest, depth(child));
+        }
+        // Connection wrappers (edges/node) do not add to the depth a client perceives
+        return isConnectionPlumbing(field) ? deepest : deepest + 1;
+    }
+
+
+    // cost = own weight + multiplier * cost of the selection below
+    private long cost(ExecutableNormalizedField field, GraphQLSchema schema) {
+        if (field.getName().startsWith("__")) {
+            return 0;
+        }
+
+        long childrenCost = 0;
+        for (ExecutableNormalizedField child : field.getChildren()) {
+            childrenCost = saturatedAdd(childrenCost, cost(child, schema));
+        }
+        if (field.getChildren().isEmpty()) {
+            return weight(field, 0);
+        }
+
+        // Several definitions only when the field is selected on an interface or union; they share the output type
+        GraphQLFieldDefinition definition = field.getFieldDefinitions(schema).get(0);
+        GraphQLType type = GraphQLTypeUtil.unwrapNonNull(definition.getType());
+        GraphQLNamedType namedType = GraphQLTypeUtil.unwrapAll(type);
+
+        long multiplier = 1;
+        if (namedType.getName().endsWith("Connection")) {
+            multiplier = pageSize(field);
+        } else if (type instanceof GraphQLList && !isConnectionPlumbing(field)) {
+            multiplier = properties.getDefaultListSize();
+        }
+
+        return saturatedAdd(weight(field, properties.getObjectFieldWeight()), saturatedMultiply(multiplier, childrenCost));
+    }
+
+
+    private long weight(ExecutableNormalizedField field, int defaultWeight) {
+        for (String typeName : field.getObjectTypeNames()) {
+            Integer weight = properties.getWeights().get(typeName + "." + field.getName());
+            if (weight != null) {
+                return weight;
+            }
+        }
+        return defaultWeight;
+    }
+
+
+    // Estimated like the resolvers serve it: a larger "first" is cut down to the maximum page size
+    private long pageSize(ExecutableNormalizedField field) {
+        Object first = field.getResolvedArguments().get("first");
+        if (first instanceof Number number && number.longValue() > 0) {
+            return Math.min(number.longValue(), maxPageSize);
+        }
+        return Math.min(properties.getDefaultPageSize(), maxPageSize);
+    }
+
+
+    private boolean isConnectionPlumbing(ExecutableNormalizedField field) {
+        for (String typeName : field.getObjectTypeNames()) {
+            if (typeName.endsWith("Connection") || typeName.endsWith("Edge")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+
+    private static long saturatedAdd(long a, long b) {
+        long result = a + b;
+        return result < 0 ? Long.MAX_VALUE : result;
+    }
+
+
+    private static long saturatedMultiply(long a, long b) {
+        return b != 0 && a > Long.MAX_VALUE / b ? Long.MAX_VALUE : a * b;
+    }
+}
@@ -0,0 +1,85 @@
+package com.fiap.atividade3.graphql.instrumentation;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+
+
+@ConfigurationProperties(prefix = "query-cost")
+public class QueryCostProperties {
+
+    private boolean enabled = true;
+
+    private int maxDepth = 8;
+
+    private long maxCost = 5_000;
+
+    // Cost of a field that resolves to an object (one entity load); scalars cost nothing
+    private int objectFieldWeight = 1;
+
+    // Assumed size of list fields without pagination arguments (Medico.consultas, ...)
+    private int defaultListSize = 50;
+
+    // Assumed page size of connections queried without "first"
+    private int defaultPageSize = 20;
+
+    // Per field overrides, keyed by "Type.field" (e.g. Query.todasConsultas)
+    private Map<String, Integer> weights = new HashMap<>();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    public void setMaxDepth(int maxDepth) {
+        this.maxDepth = maxDepth;
+    }
+
+    public long getMaxCost() {
+        return maxCost;
+    }
+
+    public void setMaxCost(long maxCost) {
+        this.maxCost = maxCost;
+    }
+
+    public int getObjectFieldWeight() {
+        return objectFieldWeight;
+    }
+
+    public void setObjectFieldWeight(int objectFieldWeight) {
+        this.objectFieldWeight = objectFieldWeight;
+    }
+
+    public int getDefaultListSize() {
+        return defaultListSize;
+    }
+
+    public void setDefaultListSize(int defaultListSize) {
+        this.defaultListSize = defaultListSize;
+    }
+
+    public int getDefaultPageSize() {
+        return defaultPageSize;
+    }
+
+    public void setDefaultPageSize(int defaultPageSize) {
+        this.defaultPageSize = defaultPageSize;
+    }
+
+    public Map<String, Integer> getWeights() {
+        return weights;
+    }
+
+    public void setWeights(Map<String, Integer> weights) {
+        this.weights = weights;
+    }
+}
@@ -0,0 +1,60 @@
+package com.fiap.atividade3.graphql.instrumentation;
+
+import com.fiap.atividade3.graphql.interceptor.ClientAddressInterceptor;
+import com.fiap.atividade3.security.RateLimitProperties;
+import com.fiap.atividade3.security.RateLimiter;
+import graphql.execution.instrumentation.InstrumentationState;
+import graphql.execution.instrumentation.SimplePerformantInstrumentation;
+import graphql.execution.instrumentation.parameters.InstrumentationFieldFetchParameters;
+import graphql.schema.DataFetcher;
+import graphql.schema.DataFetchingEnvironment;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+
+// Applies the per-operation limits to root Query/Mutation fields before their resolvers run
+public class RateLimitInstrumentation extends SimplePerformantInstrumentation {
+
+    private final RateLimiter rateLimiter;
+
+    private final RateLimitProperties properties;
+
+    public RateLimitInstrumentation(RateLimiter rateLimiter, RateLimitProperties properties) {
+        this.rateLimiter = rateLimiter;
+        this.properties = properties;
+    }
+
+    @Override
+    public DataFetcher<?> instrumentDataFetcher(DataFetcher<?> dataFetcher,
+                                                InstrumentationFieldFetchParameters parameters,
+                                                InstrumentationState state) {
+        if (parameters.isTrivialDataFetcher() || parameters.getExecutionStepInfo().getPath().getLevel() != 1) {
+            return dataFetcher;
+        }
+
+        String operation = parameters.getExecutionStepInfo().getFieldDefinition().getName();
+        RateLimitProperties.Limit limit = properties.getOperations().get(operation);
+        if (limit == null) {
+            return dataFetcher;
+        }
+
+        return env -> {
+            rateLimiter.acquire(operation, limit, resolveKey(env, limit.getKey()));
+            return dataFetcher.get(env);
+        };
+    }
+
+    private String resolveKey(DataFetchingEnvironment env, RateLimitProperties.KeyType keyType) {
+        if (keyType == RateLimitProperties.KeyType.OPERATION) {
+            return "global";
+        }
+        if (keyType == RateLimitProperties.KeyType.USER) {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            if (authentication != null && authentication.isAuthenticated()) {
+                return "user:" + authentication.getName();
+            }
+        }
+        String address = env.getGraphQlContext().get(ClientAddressInterceptor.CLIENT_ADDRESS);
+        return "ip:" + (address != null ? address : "unknown");
+    }
+}
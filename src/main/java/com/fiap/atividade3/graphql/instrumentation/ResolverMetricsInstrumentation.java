@@ -0,0 +1,113 @@
+package com.fiap.atividade3.graphql.instrumentation;
+
+import com.fiap.atividade3.graphql.interceptor.WebSocketAuthInterceptor;
+import com.fiap.atividade3.security.JwtUserPrincipal;
+import graphql.ExecutionResult;
+import graphql.execution.instrumentation.InstrumentationContext;
+import graphql.execution.instrumentation.InstrumentationState;
+import graphql.execution.instrumentation.SimpleInstrumentationContext;
+import graphql.execution.instrumentation.SimplePerformantInstrumentation;
+import graphql.execution.instrumentation.parameters.InstrumentationCreateStateParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationExecuteOperationParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationFieldFetchParameters;
+import graphql.schema.DataFetcher;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+
+// Latency per registered operation and per resolver field path, tagged with the caller's role
+public class ResolverMetricsInstrumentation extends SimplePerformantInstrumentation {
+
+    private static final String ANONYMOUS = "anonymous";
+
+    private final MeterRegistry meterRegistry;
+
+    private final OperationMetricTag operationMetricTag;
+
+    public ResolverMetricsInstrumentation(MeterRegistry meterRegistry, OperationMetricTag operationMetricTag) {
+        this.meterRegistry = meterRegistry;
+        this.operationMetricTag = operationMetricTag;
+    }
+
+    @Override
+    public CompletableFuture<InstrumentationState> createStateAsync(InstrumentationCreateStateParameters parameters) {
+        // HTTP requests carry the principal in the SecurityContext, WebSocket sessions in the GraphQLContext
+        JwtUserPrincipal usuario = JwtUserPrincipal.from(SecurityContextHolder.getContext().getAuthentication());
+        if (usuario == null) {
+            usuario = parameters.getExecutionInput().getGraphQLContext().get(WebSocketAuthInterceptor.USUARIO);
+        }
+        String role = usuario != null ? usuario.getRole().name() : ANONYMOUS;
+        return CompletableFuture.completedFuture(new RoleState(role));
+    }
+
+    @Override
+    public InstrumentationContext<ExecutionResult> beginExecuteOperation(InstrumentationExecuteOperationParameters parameters,
+                                                                        InstrumentationState state) {
+        String operation = operationMetricTag.of(parameters.getExecutionContext().getOperationDefinition());
+        String role = role(state);
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        return SimpleInstrumentationContext.whenCompleted((result, throwable) -> sample.stop(
+                Timer.builder("graphql.resolver.operation")
+                        .tag("operation", operation)
+                        .tag("role", role)
+                        .tag("outcome", throwable == null && (result == null || result.getErrors().isEmpty()) ? "success" : "error")
+                        .register(meterRegistry)));
+    }
+
+    @Override
+    public DataFetcher<?> instrumentDataFetcher(DataFetcher<?> dataFetcher,
+                                                InstrumentationFieldFetchParameters parameters,
+                                                InstrumentationState state) {
+        // Property reads are not worth a timer each
+        if (parameters.isTrivialDataFetcher()) {
+            return dataFetcher;
+        }
+
+        // Keys only, so list elements share one series per field
+        String path = String.join("/", parameters.getExecutionStepInfo().getPath().getKeysOnly());
+        String role = role(state);
+
+        return env -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            Object value;
+            try {
+                value = dataFetcher.get(env);
+            } catch (Exception e) {
+                stop(sample, path, role, "error");
+                throw e;
+            }
+            if (value instanceof CompletionStage<?> stage) {
+                return stage.whenComplete((result, throwable) -> stop(sample, path, role, throwable == null ? "success" : "error"));
+            }
+            stop(sample, path, role, "success");
+            return value;
+        };
+    }
+
+    private void stop(Timer.Sample sample, String path, String role, String outcome) {
+        sample.stop(Timer.builder("graphql.resolver.field")
+                .tag("path", path)
+                .tag("role", role)
+                .tag("outcome", outcome)
+                .register(meterRegistry));
+    }
+
+    private String role(InstrumentationState state) {
+        return state instanceof RoleState roleState ? roleState.role : ANONYMOUS;
+    }
+
+
+    private static class RoleState implements InstrumentationState {
+
+        private final String role;
+
+        RoleState(String role) {
+            this.role = role;
+        }
+    }
+}
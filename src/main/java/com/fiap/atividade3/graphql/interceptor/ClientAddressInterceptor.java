@@ -0,0 +1,29 @@
+package com.fiap.atividade3.graphql.interceptor;
+
+import org.springframework.graphql.server.WebGraphQlInterceptor;
+import org.springframework.graphql.server.WebGraphQlRequest;
+import org.springframework.graphql.server.WebGraphQlResponse;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.util.Map;
+
+
+// Exposes the client address to data fetchers through the GraphQLContext
+public class ClientAddressInterceptor implements WebGraphQlInterceptor {
+
+    public static final String CLIENT_ADDRESS = "clientAddress";
+
+    @Override
+    public Mono<WebGraphQlResponse> intercept(WebGraphQlRequest request, Chain chain) {
+        InetSocketAddress remoteAddress = request.getRemoteAddress();
+        if (remoteAddress != null) {
+            String address = remoteAddress.getAddress() != null
+                    ? remoteAddress.getAddress().getHostAddress()
+                    : remoteAddress.getHostString();
+            request.configureExecutionInput((input, builder) ->
+                    builder.graphQLContext(Map.of(CLIENT_ADDRESS, address)).build());
+        }
+        return chain.next(request);
+    }
+}
@@ -0,0 +1,78 @@
+package com.fiap.atividade3.graphql.interceptor;
+
+import com.fiap.atividade3.security.JwtUserPrincipal;
+import com.fiap.atividade3.security.JwtUtil;
+import com.fiap.atividade3.security.RevokedTokenRegistry;
+import com.fiap.atividade3.security.TokenVersionRegistry;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import org.springframework.graphql.server.WebGraphQlRequest;
+import org.springframework.graphql.server.WebGraphQlResponse;
+import org.springframework.graphql.server.WebSocketGraphQlInterceptor;
+import org.springframework.graphql.server.WebSocketGraphQlRequest;
+import org.springframework.graphql.server.WebSocketSessionInfo;
+import reactor.core.publisher.Mono;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+
+// Authenticates WebSocket sessions from the JWT in the connection_init payload
+public class WebSocketAuthInterceptor implements WebSocketGraphQlInterceptor {
+
+    public static final String USUARIO = "usuario";
+
+    // Verified claims of the session token, so subscriptions can end when it is revoked
+    public static final String TOKEN = "token";
+
+    private final JwtUtil jwtUtil;
+
+    private final RevokedTokenRegistry revokedTokenRegistry;
+
+    private final TokenVersionRegistry tokenVersionRegistry;
+
+    public WebSocketAuthInterceptor(JwtUtil jwtUtil, RevokedTokenRegistry revokedTokenRegistry,
+                                    TokenVersionRegistry tokenVersionRegistry) {
+        this.jwtUtil = jwtUtil;
+        this.revokedTokenRegistry = revokedTokenRegistry;
+        this.tokenVersionRegistry = tokenVersionRegistry;
+    }
+
+    @Override
+    public Mono<Object> handleConnectionInitialization(WebSocketSessionInfo sessionInfo, Map<String, Object> connectionInitPayload) {
+        Object header = connectionInitPayload.getOrDefault("Authorization", connectionInitPayload.get("authorization"));
+        if (!(header instanceof String value) || value.isBlank()) {
+            return Mono.empty();
+        }
+
+        String token = value.startsWith("Bearer ") ? value.substring(7) : value;
+        try {
+            Claims claims = jwtUtil.verifyToken(token);
+            if (claims.getExpiration().before(new Date())
+                    || revokedTokenRegistry.isRevoked(claims.getId())
+                    || !tokenVersionRegistry.isValid(claims)) {
+                return Mono.error(new RuntimeException("Token inválido"));
+            }
+            sessionInfo.getAttributes().put(USUARIO, JwtUserPrincipal.fromClaims(claims));
+            sessionInfo.getAttributes().put(TOKEN, claims);
+            return Mono.empty();
+        } catch (JwtException | IllegalArgumentException e) {
+            return Mono.error(new RuntimeException("Token inválido"));
+        }
+    }
+
+    @Override
+    public Mono<WebGraphQlResponse> intercept(WebGraphQlRequest request, Chain chain) {
+        if (request instanceof WebSocketGraphQlRequest webSocketRequest) {
+            Map<String, Object> attributes = webSocketRequest.getSessionInfo().getAttributes();
+            if (attributes.get(USUARIO) != null) {
+                Map<String, Object> context = new HashMap<>();
+                context.put(USUARIO, attributes.get(USUARIO));
+                context.put(TOKEN, attributes.get(TOKEN));
+                request.configureExecutionInput((input, builder) -> builder.graphQLContext(context).build());
+            }
+        }
+        return chain.next(request);
+    }
+}
@@ -0,0 +1,181 @@
+package com.fiap.atividade3.graphql.persisted;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fiap.atividade3.graphql.exception.CustomErrorType;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import graphql.ExecutionInput;
+import graphql.GraphqlErrorBuilder;
+import graphql.execution.preparsed.PreparsedDocumentEntry;
+import graphql.execution.preparsed.persisted.PersistedQueryCache;
+import graphql.execution.preparsed.persisted.PersistedQueryCacheMiss;
+import graphql.execution.preparsed.persisted.PersistedQueryNotFound;
+import graphql.execution.preparsed.persisted.PersistedQuerySupport;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+
+// Bounded store behind graphql-java's persisted query support: parsed and validated documents by SHA-256, with the
+// operations of the manifest known up front so clients can send only their hash
+@Component
+public class CaffeinePersistedQueryCache implements PersistedQueryCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(CaffeinePersistedQueryCache.class);
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ResourceLoader resourceLoader;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${persisted-queries.max-size:1000}")
+    private long maxSize;
+
+    // Only operations listed in the manifest may run
+    @Value("${persisted-queries.allow-list-only:false}")
+    private boolean allowListOnly;
+
+    @Value("${persisted-queries.manifest:classpath:graphql/persisted-queries.json}")
+    private String manifestLocation;
+
+    // Registered operations from the manifest, hash -> query text
+    private Map<String, String> manifest = Map.of();
+
+    // Their operation names, the only ones the GraphQL meters tag individually
+    private Set<String> operacoes = Set.of();
+
+    private Cache<String, CachedDocument> documents;
+
+    private Timer parseTimer;
+
+    private Counter parseTimeSaved;
+
+    @PostConstruct
+    public void init() {
+        manifest = loadManifest();
+        documents = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, documents, "graphql.documents");
+        Gauge.builder("graphql.documents.hit.ratio", documents, cache -> cache.stats().hitRate())
+                .register(meterRegistry);
+        parseTimer = meterRegistry.timer("graphql.document.parse");
+        parseTimeSaved = Counter.builder("graphql.document.parse.saved")
+                .baseUnit("seconds")
+                .description("Parse and validation time avoided by document cache hits")
+                .register(meterRegistry);
+    }
+
+
+    @Override
+    public CompletableFuture<PreparsedDocumentEntry> getPersistedQueryDocumentAsync(Object persistedQueryId,
+                                                                                    ExecutionInput executionInput,
+                                                                                    PersistedQueryCacheMiss onCacheMiss) throws PersistedQueryNotFound {
+        String hash = persistedQueryId.toString();
+        if (allowListOnly && !manifest.containsKey(hash)) {
+            return CompletableFuture.completedFuture(new PreparsedDocumentEntry(GraphqlErrorBuilder.newError()
+                    .errorType(CustomErrorType.PERSISTED_QUERY)
+                    .message("Operação não registrada")
+                    .extensions(Map.of("code", "PERSISTED_QUERY_NOT_ALLOWED"))
+                    .build()));
+        }
+
+        CachedDocument cached = documents.getIfPresent(hash);
+        if (cached != null) {
+            parseTimeSaved.increment(cached.parseNanos / (double) TimeUnit.SECONDS.toNanos(1));
+            return CompletableFuture.completedFuture(cached.entry);
+        }
+
+        // With no text and no manifest entry the miss handler throws PersistedQueryNotFound, and the client
+        // retries with the full text (the standard handshake). A text that does not match the hash is rejected there too
+        String query = executionInput.getQuery();
+        boolean hasText = query != null && !query.isBlank() && !PersistedQuerySupport.PERSISTED_QUERY_MARKER.equals(query);
+        long start = System.nanoTime();
+        PreparsedDocumentEntry entry = onCacheMiss.apply(hasText ? query : manifest.get(hash));
+        long parseNanos = System.nanoTime() - start;
+        parseTimer.record(parseNanos, TimeUnit.NANOSECONDS);
+
+        if (!entry.hasErrors()) {
+            documents.put(hash, new CachedDocument(entry, parseNanos));
+        }
+        return CompletableFuture.completedFuture(entry);
+    }
+
+
+    private Map<String, String> loadManifest() {
+        Resource resource = resourceLoader.getResource(manifestLocation);
+        if (!resource.exists()) {
+            if (allowListOnly) {
+                throw new IllegalStateException("Persisted query manifest not found: " + manifestLocation);
+            }
+            return Map.of();
+        }
+        try (InputStream in = resource.getInputStream()) {
+            Map<String, String> operations = objectMapper.readValue(in, new TypeReference<Map<String, String>>() {});
+            logger.info("Loaded {} persisted queries from {}", operations.size(), manifestLocation);
+            operacoes = Set.copyOf(operations.keySet());
+            // Key by the actual hash of the text so a stale manifest entry cannot alias another operation
+            Map<String, String> byHash = new HashMap<>();
+            operations.values().forEach(text -> byHash.put(sha256(text), text));
+            return Map.copyOf(byHash);
+        } catch (IOException e) {
+            throw new IllegalStateException("Invalid persisted query manifest: " + manifestLocation, e);
+        }
+    }
+
+
+    public Set<String> getOperacoes() {
+        return operacoes;
+    }
+
+
+    static String sha256(String text) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(text.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+
+    private static class CachedDocument {
+
+        private final PreparsedDocumentEntry entry;
+
+        private final long parseNanos;
+
+        CachedDocument(PreparsedDocumentEntry entry, long parseNanos) {
+            this.entry = entry;
+            this.parseNanos = parseNanos;
+        }
+    }
+}
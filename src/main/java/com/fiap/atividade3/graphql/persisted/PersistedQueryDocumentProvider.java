@@ -0,0 +1,32 @@
+package com.fiap.atividade3.graphql.persisted;
+
+import graphql.ExecutionInput;
+import graphql.execution.preparsed.persisted.ApolloPersistedQuerySupport;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+
+// Automatic persisted queries on graphql-java's Apollo protocol support. Requests that carry only the text are
+// keyed by its hash as well, so every document is parsed and validated once
+@Component
+public class PersistedQueryDocumentProvider extends ApolloPersistedQuerySupport {
+
+    public PersistedQueryDocumentProvider(CaffeinePersistedQueryCache persistedQueryCache) {
+        super(persistedQueryCache);
+    }
+
+
+    @Override
+    protected Optional<Object> getPersistedQueryId(ExecutionInput executionInput) {
+        Optional<Object> requested = super.getPersistedQueryId(executionInput);
+        if (requested.isPresent()) {
+            return requested;
+        }
+        String query = executionInput.getQuery();
+        if (query == null || query.isBlank() || PERSISTED_QUERY_MARKER.equals(query)) {
+            return Optional.empty();
+        }
+        return Optional.of(CaffeinePersistedQueryCache.sha256(query));
+    }
+}
@@ -0,0 +1,47 @@
+package com.fiap.atividade3.graphql.planning;
+
+import com.fiap.atividade3.repository.ConsultaFetchPlan;
+import graphql.schema.DataFetchingFieldSelectionSet;
+import graphql.schema.SelectedField;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.Set;
+
+
+// Turns the GraphQL selection on Consulta into the columns and relations to fetch
+@Component
+public class ConsultaFetchPlanner {
+
+    private static final String NODE_FIELDS = "edges/node/*";
+
+    private static final String ITEM_FIELDS = "*";
+
+    // Fields returning a ConsultaConnection
+    public ConsultaFetchPlan planejar(DataFetchingFieldSelectionSet selectionSet) {
+        return planejar(selectionSet, NODE_FIELDS);
+    }
+
+    // Fields returning Consulta items directly, such as the streaming subscriptions
+    public ConsultaFetchPlan planejarItem(DataFetchingFieldSelectionSet selectionSet) {
+        return planejar(selectionSet, ITEM_FIELDS);
+    }
+
+    private ConsultaFetchPlan planejar(DataFetchingFieldSelectionSet selectionSet, String pattern) {
+        if (selectionSet == null) {
+            return ConsultaFetchPlan.completo();
+        }
+
+        Set<String> campos = new HashSet<>();
+        Set<String> relacoes = new HashSet<>();
+        for (SelectedField field : selectionSet.getFields(pattern)) {
+            String nome = field.getName();
+            if (ConsultaFetchPlan.CAMPOS.contains(nome)) {
+                campos.add(nome);
+            } else if (ConsultaFetchPlan.RELACOES.contains(nome)) {
+                relacoes.add(nome);
+            }
+        }
+        return new ConsultaFetchPlan(campos, relacoes);
+    }
+}
@@ -5,11 +5,13 @@ import com.fiap.atividade3.graphql.input.MedicoInput;
 import com.fiap.atividade3.graphql.input.EnfermeiroInput;
 import com.fiap.atividade3.graphql.input.PacienteInput;
 import com.fiap.atividade3.graphql.type.AuthPayload;
+import com.fiap.atividade3.graphql.type.PacienteLoteResultado;
 import com.fiap.atividade3.model.entity.Usuario;
 import com.fiap.atividade3.model.entity.Medico;
 import com.fiap.atividade3.model.entity.Enfermeiro;
 import com.fiap.atividade3.model.entity.Paciente;
 import com.fiap.atividade3.service.AuthService;
+import com.fiap.atividade3.service.CustomUserDetailsService;
 import com.fiap.atividade3.service.UserRegistrationService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.graphql.data.method.annotation.Argument;
@@ -17,8 +19,11 @@ import org.springframework.graphql.data.method.annotation.MutationMapping;
 import org.springframework.graphql.data.method.annotation.QueryMapping;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Controller;
 
+import java.util.List;
+
 @Controller
 public class AuthResolver {
 
@@ -28,11 +33,18 @@ public class AuthResolver {
     @Autowired
     private UserRegistrationService userRegistrationService;
 
+    @Autowired
+    private CustomUserDetailsService userDetailsService;
+
     @MutationMapping
     public AuthPayload login(@Argument LoginInput input) {
-        String token = authService.login(input.getEmail(), input.getSenha());
-        Usuario usuario = authService.getUserFromToken(token);
-        return new AuthPayload(token, usuario);
+        return authService.login(input.getEmail(), input.getSenha());
+    }
+
+    @MutationMapping
+    public Boolean logout() {
+        authService.logout();
+        return true;
     }
 
     @MutationMapping
@@ -50,11 +62,23 @@ public class AuthResolver {
         return userRegistrationService.registrarPaciente(input);
     }
 
+    @MutationMapping
+    public List<PacienteLoteResultado> registrarPacientesEmLote(@Argument List<PacienteInput> inputs) {
+        return userRegistrationService.registrarPacientesEmLote(inputs);
+    }
+
+    @MutationMapping
+    public Boolean desativarUsuario(@Argument Long id) {
+        userRegistrationService.desativarUsuario(id);
+        return true;
+    }
+
     @QueryMapping
     public Usuario me() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        if (authentication != null && authentication.getPrincipal() instanceof Usuario) {
-            return (Usuario) authentication.getPrincipal();
+        // Either auth mode puts a UserDetails principal in the context; the entity itself is loaded by id
+        if (authentication != null && authentication.getPrincipal() instanceof UserDetails principal) {
+            return userDetailsService.findByEmail(principal.getUsername());
         }
         throw new RuntimeException("Usuário não autenticado");
     }
@@ -0,0 +1,132 @@
+package com.fiap.atividade3.graphql.resolver;
+
+import com.fiap.atividade3.graphql.execution.ResolverExecutor;
+import com.fiap.atividade3.model.entity.Consulta;
+import com.fiap.atividade3.model.entity.Enfermeiro;
+import com.fiap.atividade3.model.entity.Medico;
+import com.fiap.atividade3.model.entity.Paciente;
+import com.fiap.atividade3.model.entity.Usuario;
+import com.fiap.atividade3.repository.ConsultaRepository;
+import com.fiap.atividade3.repository.UsuarioRepository;
+import graphql.GraphQLContext;
+import org.dataloader.BatchLoaderEnvironment;
+import org.hibernate.Hibernate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.graphql.data.method.annotation.BatchMapping;
+import org.springframework.stereotype.Controller;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.function.Function;
+
+
+// Resolves Consulta relations with one IN query per relation and request level instead of one SELECT per row
+@Controller
+public class ConsultaBatchResolver {
+
+    @Autowired
+    private ConsultaRepository consultaRepository;
+
+    // Relations are loaded by id through the second-level cache, so repeated doctors and patients skip the database
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    // Loaders dispatched at the same level run concurrently instead of one after another
+    @Autowired
+    private ResolverExecutor resolverExecutor;
+
+    @BatchMapping(typeName = "Consulta")
+    public Mono<Map<Consulta, Paciente>> paciente(List<Consulta> consultas, BatchLoaderEnvironment environment) {
+        return executar(environment, () -> carregarRelacao(consultas, Consulta::getPaciente, ids -> usuarioRepository.carregarPorIds(Paciente.class, ids)));
+    }
+
+    @BatchMapping(typeName = "Consulta")
+    public Mono<Map<Consulta, Medico>> medico(List<Consulta> consultas, BatchLoaderEnvironment environment) {
+        return executar(environment, () -> carregarRelacao(consultas, Consulta::getMedico, ids -> usuarioRepository.carregarPorIds(Medico.class, ids)));
+    }
+
+    @BatchMapping(typeName = "Consulta")
+    public Mono<Map<Consulta, Enfermeiro>> enfermeiro(List<Consulta> consultas, BatchLoaderEnvironment environment) {
+        return executar(environment, () -> carregarRelacao(consultas, Consulta::getEnfermeiro, ids -> usuarioRepository.carregarPorIds(Enfermeiro.class, ids)));
+    }
+
+    @BatchMapping(typeName = "Medico")
+    public Mono<Map<Medico, List<Consulta>>> consultas(List<Medico> medicos, BatchLoaderEnvironment environment) {
+        return executar(environment, () -> agruparConsultas(medicos, consultaRepository::findByMedicoIdInOrderByDataConsultaDesc, Consulta::getMedico));
+    }
+
+    @BatchMapping(typeName = "Paciente", field = "consultas")
+    public Mono<Map<Paciente, List<Consulta>>> consultasDoPaciente(List<Paciente> pacientes, BatchLoaderEnvironment environment) {
+        return executar(environment, () -> agruparConsultas(pacientes, consultaRepository::findByPacienteIdInOrderByDataConsultaDesc, Consulta::getPaciente));
+    }
+
+    @BatchMapping(typeName = "Enfermeiro")
+    public Mono<Map<Enfermeiro, List<Consulta>>> consultasRegistradas(List<Enfermeiro> enfermeiros, BatchLoaderEnvironment environment) {
+        return executar(environment, () -> agruparConsultas(enfermeiros, consultaRepository::findByEnfermeiroIdInOrderByDataConsultaDesc, Consulta::getEnfermeiro));
+    }
+
+
+    private <T> Mono<T> executar(BatchLoaderEnvironment environment, Callable<T> carga) {
+        GraphQLContext graphQLContext = environment.getContext();
+        return Mono.fromFuture(() -> resolverExecutor.executar(graphQLContext, carga));
+    }
+
+
+    private <T extends Usuario> Map<Consulta, T> carregarRelacao(List<Consulta> consultas,
+                                                               Function<Consulta, T> relacao,
+                                                               Function<Set<Long>, List<T>> carregar) {
+        // The lazy proxies already carry the foreign key, reading getId() does not hit the database
+        Set<Long> pendentes = new HashSet<>();
+        for (Consulta consulta : consultas) {
+            T referencia = relacao.apply(consulta);
+            if (referencia != null && !Hibernate.isInitialized(referencia)) {
+                pendentes.add(referencia.getId());
+            }
+        }
+
+        Map<Long, T> carregados = new HashMap<>();
+        if (!pendentes.isEmpty()) {
+            for (T entidade : carregar.apply(pendentes)) {
+                carregados.put(entidade.getId(), entidade);
+            }
+        }
+
+        Map<Consulta, T> resultado = new LinkedHashMap<>();
+        for (Consulta consulta : consultas) {
+            T referencia = relacao.apply(consulta);
+            if (referencia != null) {
+                resultado.put(consulta, Hibernate.isInitialized(referencia)
+                        ? referencia
+                        : carregados.get(referencia.getId()));
+            }
+        }
+        return resultado;
+    }
+
+
+    private <T extends Usuario> Map<T, List<Consulta>> agruparConsultas(List<T> donos,
+                                                                       Function<Set<Long>, List<Consulta>> carregar,
+                                                                       Function<Consulta, ? extends Usuario> dono) {
+        Map<Long, List<Consulta>> porDono = new HashMap<>();
+        Set<Long> ids = new HashSet<>();
+        for (T usuario : donos) {
+            ids.add(usuario.getId());
+        }
+        for (Consulta consulta : carregar.apply(ids)) {
+            porDono.computeIfAbsent(dono.apply(consulta).getId(), id -> new ArrayList<>()).add(consulta);
+        }
+
+        Map<T, List<Consulta>> resultado = new LinkedHashMap<>();
+        for (T usuario : donos) {
+            resultado.put(usuario, porDono.getOrDefault(usuario.getId(), List.of()));
+        }
+        return resultado;
+    }
+}
@@ -3,17 +3,23 @@ package com.fiap.atividade3.graphql.resolver;
 import com.fiap.atividade3.agendamento.service.AgendamentoService;
 import com.fiap.atividade3.historico.service.HistoricoService;
 import com.fiap.atividade3.graphql.input.ConsultaInput;
+import com.fiap.atividade3.graphql.input.ConsultaLoteUpdateInput;
 import com.fiap.atividade3.graphql.input.ConsultaUpdateInput;
+import com.fiap.atividade3.graphql.planning.ConsultaFetchPlanner;
+import com.fiap.atividade3.graphql.type.ConsultaLoteResultado;
 import com.fiap.atividade3.model.entity.Consulta;
 import com.fiap.atividade3.model.entity.Usuario;
 import com.fiap.atividade3.repository.MedicoRepository;
 import com.fiap.atividade3.repository.PacienteRepository;
 import com.fiap.atividade3.repository.EnfermeiroRepository;
 import com.fiap.atividade3.service.CustomUserDetailsService;
+import graphql.schema.DataFetchingFieldSelectionSet;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Window;
 import org.springframework.graphql.data.method.annotation.Argument;
 import org.springframework.graphql.data.method.annotation.MutationMapping;
 import org.springframework.graphql.data.method.annotation.QueryMapping;
+import org.springframework.graphql.data.query.ScrollSubrange;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Controller;
@@ -29,6 +35,9 @@ public class ConsultaResolver {
     
     @Autowired
     private HistoricoService historicoService;
+
+    @Autowired
+    private ConsultaFetchPlanner consultaFetchPlanner;
     
     @Autowired
     private CustomUserDetailsService userDetailsService;
@@ -51,35 +60,35 @@ public class ConsultaResolver {
 
 
     @QueryMapping
-    public List<Consulta> minhasConsultas() {
+    public Window<Consulta> minhasConsultas(ScrollSubrange subrange, DataFetchingFieldSelectionSet selectionSet) {
         Usuario usuario = getCurrentUser();
-        return historicoService.buscarConsultasPorPaciente(usuario.getId(), usuario);
+        return historicoService.buscarConsultasPorPaciente(usuario.getId(), usuario, subrange, consultaFetchPlanner.planejar(selectionSet));
     }
 
     @QueryMapping
-    public List<Consulta> consultasPorPaciente(@Argument Long pacienteId) {
+    public Window<Consulta> consultasPorPaciente(@Argument Long pacienteId, ScrollSubrange subrange, DataFetchingFieldSelectionSet selectionSet) {
         Usuario usuario = getCurrentUser();
-        return historicoService.buscarConsultasPorPaciente(pacienteId, usuario);
+        return historicoService.buscarConsultasPorPaciente(pacienteId, usuario, subrange, consultaFetchPlanner.planejar(selectionSet));
     }
 
     @QueryMapping
-    public List<Consulta> consultasPorMedico(@Argument Long medicoId) {
-        return historicoService.buscarConsultasPorMedico(medicoId);
+    public Window<Consulta> consultasPorMedico(@Argument Long medicoId, ScrollSubrange subrange, DataFetchingFieldSelectionSet selectionSet) {
+        return historicoService.buscarConsultasPorMedico(medicoId, subrange, consultaFetchPlanner.planejar(selectionSet));
     }
 
     @QueryMapping
-    public List<Consulta> todasConsultas() {
-        return historicoService.buscarTodasConsultas();
+    public Window<Consulta> todasConsultas(ScrollSubrange subrange, DataFetchingFieldSelectionSet selectionSet) {
+        return historicoService.buscarTodasConsultas(subrange, consultaFetchPlanner.planejar(selectionSet));
     }
 
     @QueryMapping
-    public List<Consulta> consultasRecentes() {
-        return historicoService.buscarConsultasRecentes();
+    public Window<Consulta> consultasRecentes(ScrollSubrange subrange, DataFetchingFieldSelectionSet selectionSet) {
+        return historicoService.buscarConsultasRecentes(subrange, consultaFetchPlanner.planejar(selectionSet));
     }
 
     @QueryMapping
-    public List<Consulta> consultasPorPeriodo(@Argument LocalDateTime inicio, @Argument LocalDateTime fim) {
-        return historicoService.buscarConsultasPorPeriodo(inicio, fim);
+    public Window<Consulta> consultasPorPeriodo(@Argument LocalDateTime inicio, @Argument LocalDateTime fim, ScrollSubrange subrange, DataFetchingFieldSelectionSet selectionSet) {
+        return historicoService.buscarConsultasPorPeriodo(inicio, fim, subrange, consultaFetchPlanner.planejar(selectionSet));
     }
 
     @MutationMapping
@@ -125,6 +134,21 @@ public class ConsultaResolver {
         }
     }
 
+    @MutationMapping
+    public List<ConsultaLoteResultado> criarConsultasEmLote(@Argument List<ConsultaInput> inputs) {
+        return agendamentoService.criarConsultasEmLote(inputs);
+    }
+
+    @MutationMapping
+    public List<ConsultaLoteResultado> atualizarConsultasEmLote(@Argument List<ConsultaLoteUpdateInput> inputs) {
+        return agendamentoService.atualizarConsultasEmLote(inputs);
+    }
+
+    @MutationMapping
+    public List<ConsultaLoteResultado> deletarConsultasEmLote(@Argument List<Long> ids) {
+        return agendamentoService.deletarConsultasEmLote(ids);
+    }
+
     private Usuario getCurrentUser() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         if (authentication != null && authentication.getName() != null) {
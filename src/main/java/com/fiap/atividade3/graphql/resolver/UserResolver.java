@@ -1,11 +1,13 @@
 package com.fiap.atividade3.graphql.resolver;
 
+import com.fiap.atividade3.diretorio.dto.EnfermeiroResumo;
+import com.fiap.atividade3.diretorio.dto.MedicoResumo;
+import com.fiap.atividade3.diretorio.dto.PacienteResumo;
+import com.fiap.atividade3.diretorio.service.DiretorioCacheService;
+import com.fiap.atividade3.diretorio.service.DiretorioProjecaoService;
 import com.fiap.atividade3.model.entity.Medico;
 import com.fiap.atividade3.model.entity.Enfermeiro;
 import com.fiap.atividade3.model.entity.Paciente;
-import com.fiap.atividade3.repository.MedicoRepository;
-import com.fiap.atividade3.repository.EnfermeiroRepository;
-import com.fiap.atividade3.repository.PacienteRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.graphql.data.method.annotation.Argument;
 import org.springframework.graphql.data.method.annotation.QueryMapping;
@@ -17,65 +19,76 @@ import java.util.List;
 @Controller
 public class UserResolver {
 
+    // Reads go to the flat directory tables, never to the joined user hierarchy
     @Autowired
-    private MedicoRepository medicoRepository;
+    private DiretorioProjecaoService diretorioProjecaoService;
 
+    // Directory listings are cached; name searches are ranked per term and always run against the search index
     @Autowired
-    private EnfermeiroRepository enfermeiroRepository;
-
-    @Autowired
-    private PacienteRepository pacienteRepository;
+    private DiretorioCacheService diretorioCacheService;
 
     // Queries - Medical staff only
     @QueryMapping
     @PreAuthorize("hasRole('MEDICO') or hasRole('ENFERMEIRO')")
     public List<Medico> medicos() {
-        return medicoRepository.findAllActiveTrue();
+        return paraMedicos(diretorioCacheService.medicos().getItens());
     }
 
     @QueryMapping
     @PreAuthorize("hasRole('MEDICO') or hasRole('ENFERMEIRO')")
     public List<Enfermeiro> enfermeiros() {
-        return enfermeiroRepository.findAllActiveTrue();
+        return paraEnfermeiros(diretorioCacheService.enfermeiros().getItens());
     }
 
     @QueryMapping
     @PreAuthorize("hasRole('MEDICO') or hasRole('ENFERMEIRO')")
     public List<Paciente> pacientes() {
-        return pacienteRepository.findAllActiveTrue();
+        return paraPacientes(diretorioCacheService.pacientes().getItens());
     }
 
     // Search queries
     @QueryMapping
     @PreAuthorize("hasRole('MEDICO') or hasRole('ENFERMEIRO')")
-    public List<Medico> buscarMedicos(@Argument String nome, @Argument String especialidade) {
+    public List<Medico> buscarMedicos(@Argument String nome, @Argument String especialidade, @Argument Integer limite) {
         if (nome != null && !nome.trim().isEmpty()) {
-            return medicoRepository.findByNomeContainingIgnoreCaseAndActiveTrue(nome);
+            return diretorioProjecaoService.buscarMedicosPorNome(nome, limite);
         } else if (especialidade != null && !especialidade.trim().isEmpty()) {
-            return medicoRepository.findByEspecialidadeAndActiveTrue(especialidade);
+            return paraMedicos(diretorioCacheService.medicosPorEspecialidade(especialidade).getItens());
         }
-        return medicoRepository.findAllActiveTrue();
+        return paraMedicos(diretorioCacheService.medicos().getItens());
     }
 
     @QueryMapping
     @PreAuthorize("hasRole('MEDICO') or hasRole('ENFERMEIRO')")
-    public List<Enfermeiro> buscarEnfermeiros(@Argument String nome, @Argument String setor) {
+    public List<Enfermeiro> buscarEnfermeiros(@Argument String nome, @Argument String setor, @Argument Integer limite) {
         if (nome != null && !nome.trim().isEmpty()) {
-            return enfermeiroRepository.findByNomeContainingIgnoreCaseAndActiveTrue(nome);
+            return diretorioProjecaoService.buscarEnfermeirosPorNome(nome, limite);
         } else if (setor != null && !setor.trim().isEmpty()) {
-            return enfermeiroRepository.findBySetorAndActiveTrue(setor);
+            return paraEnfermeiros(diretorioCacheService.enfermeirosPorSetor(setor).getItens());
         }
-        return enfermeiroRepository.findAllActiveTrue();
+        return paraEnfermeiros(diretorioCacheService.enfermeiros().getItens());
     }
 
     @QueryMapping
     @PreAuthorize("hasRole('MEDICO') or hasRole('ENFERMEIRO')")
-    public List<Paciente> buscarPacientes(@Argument String nome) {
+    public List<Paciente> buscarPacientes(@Argument String nome, @Argument Integer limite) {
         if (nome != null && !nome.trim().isEmpty()) {
-            return pacienteRepository.findByNomeContainingIgnoreCaseAndActiveTrue(nome);
+            return diretorioProjecaoService.buscarPacientesPorNome(nome, limite);
         }
-        return pacienteRepository.findAllActiveTrue();
+        return paraPacientes(diretorioCacheService.pacientes().getItens());
     }
 
 
+    // Cached entries are shared; every request gets its own unmanaged instances
+    private static List<Medico> paraMedicos(List<MedicoResumo> resumos) {
+        return resumos.stream().map(MedicoResumo::paraMedico).toList();
+    }
+
+    private static List<Enfermeiro> paraEnfermeiros(List<EnfermeiroResumo> resumos) {
+        return resumos.stream().map(EnfermeiroResumo::paraEnfermeiro).toList();
+    }
+
+    private static List<Paciente> paraPacientes(List<PacienteResumo> resumos) {
+        return resumos.stream().map(PacienteResumo::paraPaciente).toList();
+    }
 }
@@ -0,0 +1,78 @@
+package com.fiap.atividade3.graphql.type;
+
+import com.fiap.atividade3.model.entity.Consulta;
+
+// Outcome of one item of a bulk consultation mutation
+public class ConsultaLoteResultado {
+
+    private int indice;
+    private Long id;
+    private boolean sucesso;
+    private String erro;
+    private Consulta consulta;
+
+    // Constructors
+    public ConsultaLoteResultado() {}
+
+    public ConsultaLoteResultado(int indice, Long id, boolean sucesso, String erro, Consulta consulta) {
+        this.indice = indice;
+        this.id = id;
+        this.sucesso = sucesso;
+        this.erro = erro;
+        this.consulta = consulta;
+    }
+
+    public static ConsultaLoteResultado sucesso(int indice, Consulta consulta) {
+        return new ConsultaLoteResultado(indice, null, true, null, consulta);
+    }
+
+    public static ConsultaLoteResultado sucesso(int indice, Long id) {
+        return new ConsultaLoteResultado(indice, id, true, null, null);
+    }
+
+    public static ConsultaLoteResultado falha(int indice, Long id, String erro) {
+        return new ConsultaLoteResultado(indice, id, false, erro, null);
+    }
+
+    // Getters and Setters
+    public int getIndice() {
+        return indice;
+    }
+
+    public void setIndice(int indice) {
+        this.indice = indice;
+    }
+
+    // New consultations only get their id once the batch is flushed
+    public Long getId() {
+        return consulta != null ? consulta.getId() : id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public boolean isSucesso() {
+        return sucesso;
+    }
+
+    public void setSucesso(boolean sucesso) {
+        this.sucesso = sucesso;
+    }
+
+    public String getErro() {
+        return erro;
+    }
+
+    public void setErro(String erro) {
+        this.erro = erro;
+    }
+
+    public Consulta getConsulta() {
+        return consulta;
+    }
+
+    public void setConsulta(Consulta consulta) {
+        this.consulta = consulta;
+    }
+}
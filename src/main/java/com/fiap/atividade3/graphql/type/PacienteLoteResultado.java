@@ -0,0 +1,67 @@
+package com.fiap.atividade3.graphql.type;
+
+import com.fiap.atividade3.model.entity.Paciente;
+
+// Outcome of one patient of a bulk registration
+public class PacienteLoteResultado {
+
+    private int indice;
+    private boolean sucesso;
+    private String erro;
+    private Paciente paciente;
+
+    // Constructors
+    public PacienteLoteResultado() {}
+
+    public PacienteLoteResultado(int indice, boolean sucesso, String erro, Paciente paciente) {
+        this.indice = indice;
+        this.sucesso = sucesso;
+        this.erro = erro;
+        this.paciente = paciente;
+    }
+
+    public static PacienteLoteResultado sucesso(int indice, Paciente paciente) {
+        return new PacienteLoteResultado(indice, true, null, paciente);
+    }
+
+    public static PacienteLoteResultado falha(int indice, String erro) {
+        return new PacienteLoteResultado(indice, false, erro, null);
+    }
+
+    // Getters and Setters
+    public int getIndice() {
+        return indice;
+    }
+
+    public void setIndice(int indice) {
+        this.indice = indice;
+    }
+
+    public Long getId() {
+        return paciente != null ? paciente.getId() : null;
+    }
+
+    public boolean isSucesso() {
+        return sucesso;
+    }
+
+    public void setSucesso(boolean sucesso) {
+        this.sucesso = sucesso;
+    }
+
+    public String getErro() {
+        return erro;
+    }
+
+    public void setErro(String erro) {
+        this.erro = erro;
+    }
+
+    public Paciente getPaciente() {
+        return paciente;
+    }
+
+    public void setPaciente(Paciente paciente) {
+        this.paciente = paciente;
+    }
+}
@@ -1,12 +1,16 @@
 package com.fiap.atividade3.historico.graphql;
 
 import com.fiap.atividade3.historico.service.HistoricoService;
+import com.fiap.atividade3.graphql.planning.ConsultaFetchPlanner;
 import com.fiap.atividade3.model.entity.Consulta;
 import com.fiap.atividade3.model.entity.Usuario;
 import com.fiap.atividade3.service.CustomUserDetailsService;
+import graphql.schema.DataFetchingFieldSelectionSet;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Window;
 import org.springframework.graphql.data.method.annotation.Argument;
 import org.springframework.graphql.data.method.annotation.QueryMapping;
+import org.springframework.graphql.data.query.ScrollSubrange;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Controller;
@@ -22,37 +26,40 @@ public class HistoricoResolver {
     @Autowired
     private HistoricoService historicoService;
 
+    @Autowired
+    private ConsultaFetchPlanner consultaFetchPlanner;
+
     @Autowired
     private CustomUserDetailsService userDetailsService;
 
     @QueryMapping
-    public List<Consulta> consultasHistorico() {
-        return historicoService.buscarTodasConsultas();
+    public Window<Consulta> consultasHistorico(ScrollSubrange subrange, DataFetchingFieldSelectionSet selectionSet) {
+        return historicoService.buscarTodasConsultas(subrange, consultaFetchPlanner.planejar(selectionSet));
     }
 
     @QueryMapping
-    public List<Consulta> consultasPorPacienteHistorico(@Argument Long pacienteId) {
+    public Window<Consulta> consultasPorPacienteHistorico(@Argument Long pacienteId, ScrollSubrange subrange, DataFetchingFieldSelectionSet selectionSet) {
         Usuario usuario = getUsuarioAutenticadoHistorico();
-        return historicoService.buscarConsultasPorPaciente(pacienteId, usuario);
+        return historicoService.buscarConsultasPorPaciente(pacienteId, usuario, subrange, consultaFetchPlanner.planejar(selectionSet));
     }
 
     @QueryMapping
-    public List<Consulta> consultasPorMedicoHistorico(@Argument Long medicoId) {
-        return historicoService.buscarConsultasPorMedico(medicoId);
+    public Window<Consulta> consultasPorMedicoHistorico(@Argument Long medicoId, ScrollSubrange subrange, DataFetchingFieldSelectionSet selectionSet) {
+        return historicoService.buscarConsultasPorMedico(medicoId, subrange, consultaFetchPlanner.planejar(selectionSet));
     }
 
     @QueryMapping
-    public List<Consulta> consultasPorPeriodoHistorico(@Argument String inicio, @Argument String fim) {
+    public Window<Consulta> consultasPorPeriodoHistorico(@Argument String inicio, @Argument String fim, ScrollSubrange subrange, DataFetchingFieldSelectionSet selectionSet) {
         DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
         LocalDateTime dataInicio = LocalDateTime.parse(inicio, formatter);
         LocalDateTime dataFim = LocalDateTime.parse(fim, formatter);
         
-        return historicoService.buscarConsultasPorPeriodo(dataInicio, dataFim);
+        return historicoService.buscarConsultasPorPeriodo(dataInicio, dataFim, subrange, consultaFetchPlanner.planejar(selectionSet));
     }
 
     @QueryMapping
-    public List<Consulta> consultasRecentesHistorico() {
-        return historicoService.buscarConsultasRecentes();
+    public Window<Consulta> consultasRecentesHistorico(ScrollSubrange subrange, DataFetchingFieldSelectionSet selectionSet) {
+        return historicoService.buscarConsultasRecentes(subrange, consultaFetchPlanner.planejar(selectionSet));
     }
 
     @QueryMapping
@@ -62,13 +69,13 @@ public class HistoricoResolver {
     }
 
     @QueryMapping
-    public List<Consulta> historicoCompletoHistorico(@Argument Long pacienteId) {
-        return historicoService.buscarHistoricoCompleto(pacienteId);
+    public Window<Consulta> historicoCompletoHistorico(@Argument Long pacienteId, ScrollSubrange subrange, DataFetchingFieldSelectionSet selectionSet) {
+        return historicoService.buscarHistoricoCompleto(pacienteId, subrange, consultaFetchPlanner.planejar(selectionSet));
     }
 
     @QueryMapping
-    public List<Consulta> consultasPorEspecialidadeHistorico(@Argument String especialidade) {
-        return historicoService.buscarConsultasPorEspecialidade(especialidade);
+    public Window<Consulta> consultasPorEspecialidadeHistorico(@Argument String especialidade, ScrollSubrange subrange, DataFetchingFieldSelectionSet selectionSet) {
+        return historicoService.buscarConsultasPorEspecialidade(especialidade, subrange, consultaFetchPlanner.planejar(selectionSet));
     }
 
     @QueryMapping
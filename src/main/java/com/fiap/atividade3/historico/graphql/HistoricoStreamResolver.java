@@ -0,0 +1,73 @@
+package com.fiap.atividade3.historico.graphql;
+
+import com.fiap.atividade3.graphql.interceptor.WebSocketAuthInterceptor;
+import com.fiap.atividade3.graphql.planning.ConsultaFetchPlanner;
+import com.fiap.atividade3.historico.service.HistoricoStreamService;
+import com.fiap.atividade3.model.entity.Consulta;
+import com.fiap.atividade3.model.enums.UserRole;
+import com.fiap.atividade3.security.JwtUserPrincipal;
+import graphql.schema.DataFetchingFieldSelectionSet;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.ContextValue;
+import org.springframework.graphql.data.method.annotation.SubscriptionMapping;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Controller;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Set;
+
+
+// Large history reads delivered item by item instead of as one response
+@Controller
+public class HistoricoStreamResolver {
+
+    private static final DateTimeFormatter FORMATO_DATA = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
+    @Autowired
+    private HistoricoStreamService historicoStreamService;
+
+    @Autowired
+    private ConsultaFetchPlanner consultaFetchPlanner;
+
+    @SubscriptionMapping
+    public Flux<Consulta> historicoCompletoStream(@Argument Long pacienteId, DataFetchingFieldSelectionSet selectionSet,
+                                                  @ContextValue(name = WebSocketAuthInterceptor.USUARIO, required = false) JwtUserPrincipal usuario) {
+        verificarEquipeMedica(usuario);
+        return historicoStreamService.streamHistoricoCompleto(pacienteId, relacoes(selectionSet));
+    }
+
+    @SubscriptionMapping
+    public Flux<Consulta> consultasPorEspecialidadeStream(@Argument String especialidade, DataFetchingFieldSelectionSet selectionSet,
+                                                          @ContextValue(name = WebSocketAuthInterceptor.USUARIO, required = false) JwtUserPrincipal usuario) {
+        verificarEquipeMedica(usuario);
+        return historicoStreamService.streamConsultasPorEspecialidade(especialidade, relacoes(selectionSet));
+    }
+
+    @SubscriptionMapping
+    public Flux<Consulta> consultasPorPeriodoStream(@Argument String inicio, @Argument String fim, DataFetchingFieldSelectionSet selectionSet,
+                                                    @ContextValue(name = WebSocketAuthInterceptor.USUARIO, required = false) JwtUserPrincipal usuario) {
+        verificarEquipeMedica(usuario);
+        LocalDateTime dataInicio = LocalDateTime.parse(inicio, FORMATO_DATA);
+        LocalDateTime dataFim = LocalDateTime.parse(fim, FORMATO_DATA);
+        return historicoStreamService.streamConsultasPorPeriodo(dataInicio, dataFim, relacoes(selectionSet));
+    }
+
+    private Set<String> relacoes(DataFetchingFieldSelectionSet selectionSet) {
+        return consultaFetchPlanner.planejarItem(selectionSet).getRelacoes();
+    }
+
+    private void verificarEquipeMedica(JwtUserPrincipal usuarioWebSocket) {
+        JwtUserPrincipal usuario = usuarioWebSocket != null
+                ? usuarioWebSocket
+                : JwtUserPrincipal.from(SecurityContextHolder.getContext().getAuthentication());
+        if (usuario == null) {
+            throw new RuntimeException("Usuário não autenticado");
+        }
+        if (usuario.getRole() != UserRole.MEDICO && usuario.getRole() != UserRole.ENFERMEIRO) {
+            throw new RuntimeException("Acesso negado: histórico disponível apenas para a equipe médica");
+        }
+    }
+}
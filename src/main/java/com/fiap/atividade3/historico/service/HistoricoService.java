@@ -2,15 +2,28 @@ package com.fiap.atividade3.historico.service;
 
 import com.fiap.atividade3.model.entity.Consulta;
 import com.fiap.atividade3.model.entity.Usuario;
-import com.fiap.atividade3.model.enums.UserRole;
+import com.fiap.atividade3.repository.ConsultaFetchPlan;
 import com.fiap.atividade3.repository.ConsultaRepository;
+import com.fiap.atividade3.service.ConsultaPaginacaoService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.graphql.data.query.ScrollSubrange;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.util.List;
 
+import static com.fiap.atividade3.repository.ConsultaSpecifications.aPartirDe;
+import static com.fiap.atividade3.repository.ConsultaSpecifications.daEspecialidade;
+import static com.fiap.atividade3.repository.ConsultaSpecifications.doMedico;
+import static com.fiap.atividade3.repository.ConsultaSpecifications.doPaciente;
+import static com.fiap.atividade3.repository.ConsultaSpecifications.entre;
+import static com.fiap.atividade3.repository.ConsultaSpecifications.posterioresA;
+import static com.fiap.atividade3.repository.ConsultaSpecifications.todas;
+import static com.fiap.atividade3.repository.ConsultaSpecifications.visivelPara;
+
 
 @Service
 public class HistoricoService {
@@ -18,54 +31,50 @@ public class HistoricoService {
     @Autowired
     private ConsultaRepository consultaRepository;
 
-    public List<Consulta> buscarConsultasPorPaciente(Long pacienteId, Usuario usuario) {
-        // Pacientes só podem ver suas próprias consultas
-        if (usuario.getRole() == UserRole.PACIENTE && !usuario.getId().equals(pacienteId)) {
-            throw new RuntimeException("Acesso negado: você só pode visualizar suas próprias consultas");
-        }
-        
-        return consultaRepository.findByPacienteIdOrderByDataConsultaDesc(pacienteId);
+    @Autowired
+    private ConsultaPaginacaoService consultaPaginacaoService;
+
+    public Window<Consulta> buscarConsultasPorPaciente(Long pacienteId, Usuario usuario, ScrollSubrange subrange, ConsultaFetchPlan plano) {
+        // Pacientes só podem ver suas próprias consultas: filtered in the query, another patient's id yields an empty page
+        return consultaPaginacaoService.paginar(doPaciente(pacienteId).and(visivelPara(usuario)), subrange, plano);
     }
 
     @PreAuthorize("hasRole('MEDICO') or hasRole('ENFERMEIRO')")
-    public List<Consulta> buscarConsultasPorMedico(Long medicoId) {
-        return consultaRepository.findByMedicoIdOrderByDataConsultaDesc(medicoId);
+    public Window<Consulta> buscarConsultasPorMedico(Long medicoId, ScrollSubrange subrange, ConsultaFetchPlan plano) {
+        return consultaPaginacaoService.paginar(doMedico(medicoId), subrange, plano);
     }
 
     @PreAuthorize("hasRole('MEDICO') or hasRole('ENFERMEIRO')")
-    public List<Consulta> buscarTodasConsultas() {
-        return consultaRepository.findAll();
+    public Window<Consulta> buscarTodasConsultas(ScrollSubrange subrange, ConsultaFetchPlan plano) {
+        return consultaPaginacaoService.paginar(todas(), subrange, plano);
     }
 
     @PreAuthorize("hasRole('MEDICO') or hasRole('ENFERMEIRO')")
-    public List<Consulta> buscarConsultasPorPeriodo(LocalDateTime inicio, LocalDateTime fim) {
-        return consultaRepository.findByDataConsultaBetween(inicio, fim);
+    public Window<Consulta> buscarConsultasPorPeriodo(LocalDateTime inicio, LocalDateTime fim, ScrollSubrange subrange, ConsultaFetchPlan plano) {
+        return consultaPaginacaoService.paginar(entre(inicio, fim), subrange, plano);
     }
 
     @PreAuthorize("hasRole('MEDICO') or hasRole('ENFERMEIRO')")
-    public List<Consulta> buscarConsultasRecentes() {
+    public Window<Consulta> buscarConsultasRecentes(ScrollSubrange subrange, ConsultaFetchPlan plano) {
         LocalDateTime thirtyDaysAgo = LocalDateTime.now().minusDays(30);
-        return consultaRepository.findRecentConsultations(thirtyDaysAgo);
+        return consultaPaginacaoService.paginar(aPartirDe(thirtyDaysAgo), subrange, plano);
     }
 
     public List<Consulta> buscarConsultasFuturas(Long pacienteId, Usuario usuario) {
-        // Pacientes só podem ver suas próprias consultas
-        if (usuario.getRole() == UserRole.PACIENTE && !usuario.getId().equals(pacienteId)) {
-            throw new RuntimeException("Acesso negado: você só pode visualizar suas próprias consultas");
-        }
-        
+        // Pacientes só podem ver suas próprias consultas: filtered in the query
         LocalDateTime agora = LocalDateTime.now();
-        return consultaRepository.findByPacienteIdAndDataConsultaAfterOrderByDataConsultaAsc(pacienteId, agora);
+        return consultaRepository.findAll(doPaciente(pacienteId).and(posterioresA(agora)).and(visivelPara(usuario)),
+                Sort.by(Sort.Direction.ASC, "dataConsulta"));
     }
 
     @PreAuthorize("hasRole('MEDICO') or hasRole('ENFERMEIRO')")
-    public List<Consulta> buscarHistoricoCompleto(Long pacienteId) {
-        return consultaRepository.findByPacienteIdOrderByDataConsultaDesc(pacienteId);
+    public Window<Consulta> buscarHistoricoCompleto(Long pacienteId, ScrollSubrange subrange, ConsultaFetchPlan plano) {
+        return consultaPaginacaoService.paginar(doPaciente(pacienteId), subrange, plano);
     }
 
     @PreAuthorize("hasRole('MEDICO') or hasRole('ENFERMEIRO')")
-    public List<Consulta> buscarConsultasPorEspecialidade(String especialidade) {
-        return consultaRepository.findByMedicoEspecialidadeOrderByDataConsultaDesc(especialidade);
+    public Window<Consulta> buscarConsultasPorEspecialidade(String especialidade, ScrollSubrange subrange, ConsultaFetchPlan plano) {
+        return consultaPaginacaoService.paginar(daEspecialidade(especialidade), subrange, plano);
     }
 
     @PreAuthorize("hasRole('MEDICO') or hasRole('ENFERMEIRO')")
@@ -0,0 +1,136 @@
+package com.fiap.atividade3.historico.service;
+
+import com.fiap.atividade3.model.entity.Consulta;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.TypedQuery;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Semaphore;
+import java.util.stream.Stream;
+
+
+// Streams consultation history row by row from a database cursor, so the first row is sent before the last is read.
+// Each open stream holds a pooled connection until its client has drained it, so only a few may be open at once
+@Service
+public class HistoricoStreamService {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${historico.stream.fetch-size:200}")
+    private int fetchSize;
+
+    @Value("${historico.stream.max-concurrent:2}")
+    private int maxConcurrent;
+
+    private Semaphore streamsAbertos;
+
+    @PostConstruct
+    public void init() {
+        streamsAbertos = new Semaphore(maxConcurrent);
+        Gauge.builder("historico.stream.active", streamsAbertos, semaphore -> maxConcurrent - semaphore.availablePermits())
+                .register(meterRegistry);
+    }
+
+    public Flux<Consulta> streamHistoricoCompleto(Long pacienteId, Set<String> relacoes) {
+        return stream("c.paciente.id = :pacienteId", Map.of("pacienteId", pacienteId), relacoes);
+    }
+
+    public Flux<Consulta> streamConsultasPorEspecialidade(String especialidade, Set<String> relacoes) {
+        return stream("c.medico.especialidade = :especialidade", Map.of("especialidade", especialidade), relacoes);
+    }
+
+    public Flux<Consulta> streamConsultasPorPeriodo(LocalDateTime inicio, LocalDateTime fim, Set<String> relacoes) {
+        return stream("c.dataConsulta BETWEEN :inicio AND :fim", Map.of("inicio", inicio, "fim", fim), relacoes);
+    }
+
+
+    private Flux<Consulta> stream(String filtro, Map<String, Object> parametros, Set<String> relacoes) {
+        return Flux.defer(() -> {
+            // Rejected rather than queued: a waiting subscriber would only tie up its request instead of a connection
+            if (!streamsAbertos.tryAcquire()) {
+                return Flux.error(new RuntimeException("Limite de streams de histórico simultâneos atingido"));
+            }
+            return Flux.using(
+                    () -> abrirCursor(filtro, parametros, relacoes),
+                    cursor -> Flux.fromStream(cursor.linhas),
+                    Cursor::fechar)
+                    // Completion, error and cancellation alike give the permit back, once
+                    .doFinally(signal -> streamsAbertos.release());
+        }).subscribeOn(Schedulers.boundedElastic());
+    }
+
+
+    private Cursor abrirCursor(String filtro, Map<String, Object> parametros, Set<String> relacoes) {
+        // Own EntityManager and read-only transaction: the cursor outlives any request-bound persistence context
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            entityManager.getTransaction().begin();
+
+            StringBuilder jpql = new StringBuilder("SELECT c FROM Consulta c");
+            // Only the requested relations are joined; they arrive initialized with each row
+            for (String relacao : relacoes) {
+                jpql.append("paciente".equals(relacao) || "medico".equals(relacao) ? " JOIN FETCH c." : " LEFT JOIN FETCH c.")
+                        .append(relacao);
+            }
+            jpql.append(" WHERE ").append(filtro).append(" ORDER BY c.dataConsulta DESC, c.id DESC");
+
+            TypedQuery<Consulta> query = entityManager.createQuery(jpql.toString(), Consulta.class)
+                    .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                    .setHint(HibernateHints.HINT_READ_ONLY, true);
+            parametros.forEach(query::setParameter);
+
+            Stream<Consulta> linhas = query.getResultStream().map(consulta -> {
+                // Keep the persistence context flat while the cursor advances
+                entityManager.detach(consulta);
+                return consulta;
+            });
+            return new Cursor(entityManager, linhas);
+        } catch (RuntimeException e) {
+            if (entityManager.getTransaction().isActive()) {
+                entityManager.getTransaction().rollback();
+            }
+            entityManager.close();
+            throw e;
+        }
+    }
+
+
+    private static class Cursor {
+
+        private final EntityManager entityManager;
+
+        private final Stream<Consulta> linhas;
+
+        Cursor(EntityManager entityManager, Stream<Consulta> linhas) {
+            this.entityManager = entityManager;
+            this.linhas = linhas;
+        }
+
+        void fechar() {
+            try {
+                linhas.close();
+                if (entityManager.getTransaction().isActive()) {
+                    entityManager.getTransaction().rollback();
+                }
+            } finally {
+                entityManager.close();
+            }
+        }
+    }
+}
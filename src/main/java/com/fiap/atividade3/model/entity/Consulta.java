@@ -12,7 +12,8 @@ import java.time.LocalDateTime;
 public class Consulta {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "consultas_seq")
+    @SequenceGenerator(name = "consultas_seq", sequenceName = "consultas_seq", allocationSize = 50)
     private Long id;
 
     @NotNull(message = "Data da consulta é obrigatória")
@@ -0,0 +1,132 @@
+package com.fiap.atividade3.model.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+import java.util.Locale;
+
+
+// Row of the flat nurse directory
+@Entity
+@Table(name = "diretorio_enfermeiros")
+public class DiretorioEnfermeiro {
+
+    @Id
+    @Column(name = "usuario_id")
+    private Long usuarioId;
+
+    @Column(nullable = false, length = 100)
+    private String nome;
+
+    @Column(name = "nome_busca", nullable = false, length = 100)
+    private String nomeBusca;
+
+    @Column(nullable = false)
+    private String email;
+
+    @Column(nullable = false, length = 20)
+    private String coren;
+
+    @Column(length = 100)
+    private String setor;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    // Constructors
+    public DiretorioEnfermeiro() {}
+
+    public static DiretorioEnfermeiro de(Enfermeiro enfermeiro) {
+        DiretorioEnfermeiro linha = new DiretorioEnfermeiro();
+        linha.usuarioId = enfermeiro.getId();
+        linha.nome = enfermeiro.getNome();
+        linha.nomeBusca = enfermeiro.getNome().toLowerCase(Locale.ROOT);
+        linha.email = enfermeiro.getEmail();
+        linha.coren = enfermeiro.getCoren();
+        linha.setor = enfermeiro.getSetor();
+        linha.createdAt = enfermeiro.getCreatedAt();
+        linha.updatedAt = enfermeiro.getUpdatedAt();
+        return linha;
+    }
+
+    public Enfermeiro paraEnfermeiro() {
+        Enfermeiro enfermeiro = new Enfermeiro();
+        enfermeiro.setId(usuarioId);
+        enfermeiro.setNome(nome);
+        enfermeiro.setEmail(email);
+        enfermeiro.setCoren(coren);
+        enfermeiro.setSetor(setor);
+        enfermeiro.setCreatedAt(createdAt);
+        enfermeiro.setUpdatedAt(updatedAt);
+        enfermeiro.setActive(true);
+        return enfermeiro;
+    }
+
+    // Getters and Setters
+    public Long getUsuarioId() {
+        return usuarioId;
+    }
+
+    public void setUsuarioId(Long usuarioId) {
+        this.usuarioId = usuarioId;
+    }
+
+    public String getNome() {
+        return nome;
+    }
+
+    public void setNome(String nome) {
+        this.nome = nome;
+    }
+
+    public String getNomeBusca() {
+        return nomeBusca;
+    }
+
+    public void setNomeBusca(String nomeBusca) {
+        this.nomeBusca = nomeBusca;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    public String getCoren() {
+        return coren;
+    }
+
+    public void setCoren(String coren) {
+        this.coren = coren;
+    }
+
+    public String getSetor() {
+        return setor;
+    }
+
+    public void setSetor(String setor) {
+        this.setor = setor;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
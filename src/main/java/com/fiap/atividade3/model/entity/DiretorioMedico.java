@@ -0,0 +1,134 @@
+package com.fiap.atividade3.model.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+import java.util.Locale;
+
+
+// Row of the flat doctor directory: usuarios and medicos columns copied side by side, active users only
+@Entity
+@Table(name = "diretorio_medicos")
+public class DiretorioMedico {
+
+    @Id
+    @Column(name = "usuario_id")
+    private Long usuarioId;
+
+    @Column(nullable = false, length = 100)
+    private String nome;
+
+    // Lower-cased copy of nome; the PostgreSQL trigram indexes are built over its unaccented form
+    @Column(name = "nome_busca", nullable = false, length = 100)
+    private String nomeBusca;
+
+    @Column(nullable = false)
+    private String email;
+
+    @Column(nullable = false, length = 20)
+    private String crm;
+
+    @Column(nullable = false, length = 100)
+    private String especialidade;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    // Constructors
+    public DiretorioMedico() {}
+
+    public static DiretorioMedico de(Medico medico) {
+        DiretorioMedico linha = new DiretorioMedico();
+        linha.usuarioId = medico.getId();
+        linha.nome = medico.getNome();
+        linha.nomeBusca = medico.getNome().toLowerCase(Locale.ROOT);
+        linha.email = medico.getEmail();
+        linha.crm = medico.getCrm();
+        linha.especialidade = medico.getEspecialidade();
+        linha.createdAt = medico.getCreatedAt();
+        linha.updatedAt = medico.getUpdatedAt();
+        return linha;
+    }
+
+    // Detached Medico carrying the directory columns, for resolvers typed on the entity
+    public Medico paraMedico() {
+        Medico medico = new Medico();
+        medico.setId(usuarioId);
+        medico.setNome(nome);
+        medico.setEmail(email);
+        medico.setCrm(crm);
+        medico.setEspecialidade(especialidade);
+        medico.setCreatedAt(createdAt);
+        medico.setUpdatedAt(updatedAt);
+        medico.setActive(true);
+        return medico;
+    }
+
+    // Getters and Setters
+    public Long getUsuarioId() {
+        return usuarioId;
+    }
+
+    public void setUsuarioId(Long usuarioId) {
+        this.usuarioId = usuarioId;
+    }
+
+    public String getNome() {
+        return nome;
+    }
+
+    public void setNome(String nome) {
+        this.nome = nome;
+    }
+
+    public String getNomeBusca() {
+        return nomeBusca;
+    }
+
+    public void setNomeBusca(String nomeBusca) {
+        this.nomeBusca = nomeBusca;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    public String getCrm() {
+        return crm;
+    }
+
+    public void setCrm(String crm) {
+        this.crm = crm;
+    }
+
+    public String getEspecialidade() {
+        return especialidade;
+    }
+
+    public void setEspecialidade(String especialidade) {
+        this.especialidade = especialidade;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -0,0 +1,159 @@
+package com.fiap.atividade3.model.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Locale;
+
+
+// Row of the flat patient directory
+@Entity
+@Table(name = "diretorio_pacientes")
+public class DiretorioPaciente {
+
+    @Id
+    @Column(name = "usuario_id")
+    private Long usuarioId;
+
+    @Column(nullable = false, length = 100)
+    private String nome;
+
+    @Column(name = "nome_busca", nullable = false, length = 100)
+    private String nomeBusca;
+
+    @Column(nullable = false)
+    private String email;
+
+    @Column(nullable = false, length = 14)
+    private String cpf;
+
+    @Column(name = "data_nascimento")
+    private LocalDate dataNascimento;
+
+    @Column(length = 15)
+    private String telefone;
+
+    @Column(length = 200)
+    private String endereco;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    // Constructors
+    public DiretorioPaciente() {}
+
+    public static DiretorioPaciente de(Paciente paciente) {
+        DiretorioPaciente linha = new DiretorioPaciente();
+        linha.usuarioId = paciente.getId();
+        linha.nome = paciente.getNome();
+        linha.nomeBusca = paciente.getNome().toLowerCase(Locale.ROOT);
+        linha.email = paciente.getEmail();
+        linha.cpf = paciente.getCpf();
+        linha.dataNascimento = paciente.getDataNascimento();
+        linha.telefone = paciente.getTelefone();
+        linha.endereco = paciente.getEndereco();
+        linha.createdAt = paciente.getCreatedAt();
+        linha.updatedAt = paciente.getUpdatedAt();
+        return linha;
+    }
+
+    public Paciente paraPaciente() {
+        Paciente paciente = new Paciente();
+        paciente.setId(usuarioId);
+        paciente.setNome(nome);
+        paciente.setEmail(email);
+        paciente.setCpf(cpf);
+        paciente.setDataNascimento(dataNascimento);
+        paciente.setTelefone(telefone);
+        paciente.setEndereco(endereco);
+        paciente.setCreatedAt(createdAt);
+        paciente.setUpdatedAt(updatedAt);
+        paciente.setActive(true);
+        return paciente;
+    }
+
+    // Getters and Setters
+    public Long getUsuarioId() {
+        return usuarioId;
+    }
+
+    public void setUsuarioId(Long usuarioId) {
+        this.usuarioId = usuarioId;
+    }
+
+    public String getNome() {
+        return nome;
+    }
+
+    public void setNome(String nome) {
+        this.nome = nome;
+    }
+
+    public String getNomeBusca() {
+        return nomeBusca;
+    }
+
+    public void setNomeBusca(String nomeBusca) {
+        this.nomeBusca = nomeBusca;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    public String getCpf() {
+        return cpf;
+    }
+
+    public void setCpf(String cpf) {
+        this.cpf = cpf;
+    }
+
+    public LocalDate getDataNascimento() {
+        return dataNascimento;
+    }
+
+    public void setDataNascimento(LocalDate dataNascimento) {
+        this.dataNascimento = dataNascimento;
+    }
+
+    public String getTelefone() {
+        return telefone;
+    }
+
+    public void setTelefone(String telefone) {
+        this.telefone = telefone;
+    }
+
+    public String getEndereco() {
+        return endereco;
+    }
+
+    public void setEndereco(String endereco) {
+        this.endereco = endereco;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -5,6 +5,10 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -14,13 +18,20 @@ import java.util.Collection;
 import java.util.List;
 
 
+// One second-level cache region for the whole hierarchy: Medico, Enfermeiro and Paciente are cached under the root.
+// READ_WRITE locks the entry while a transaction updates the user, so readers never see a stale copy after commit.
+// The region is local to the node; writes on other nodes evict it through the usuario.invalidated broadcast
 @Entity
 @Table(name = "usuarios")
 @Inheritance(strategy = InheritanceType.JOINED)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "usuarios")
 public class Usuario implements UserDetails {
 
+    // Pooled sequence: one round trip reserves 50 ids, and inserts can be batched (IDENTITY forces one per row)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "usuarios_seq")
+    @SequenceGenerator(name = "usuarios_seq", sequenceName = "usuarios_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "Nome é obrigatório")
@@ -38,8 +49,10 @@ public class Usuario implements UserDetails {
     @Column(nullable = false)
     private String senha;
 
+    // Plain VARCHAR on every database, matching the migrated column instead of a dialect-specific enum type
     @Enumerated(EnumType.STRING)
-    @Column(nullable = false)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(nullable = false, length = 20)
     private UserRole role;
 
     @Column(name = "created_at", nullable = false)
@@ -51,6 +64,10 @@ public class Usuario implements UserDetails {
     @Column(name = "active", nullable = false)
     private Boolean active = true;
 
+    // Tokens issued with a lower version are rejected; incremented to revoke every token of the user
+    @Column(name = "token_version", nullable = false)
+    private Integer tokenVersion = 0;
+
     // Constructors
     public Usuario() {
         this.createdAt = LocalDateTime.now();
@@ -170,4 +187,12 @@ public class Usuario implements UserDetails {
     public void setActive(Boolean active) {
         this.active = active;
     }
+
+    public Integer getTokenVersion() {
+        return tokenVersion;
+    }
+
+    public void setTokenVersion(Integer tokenVersion) {
+        this.tokenVersion = tokenVersion;
+    }
 }
@@ -0,0 +1,104 @@
+package com.fiap.atividade3.notificacao.graphql;
+
+import com.fiap.atividade3.graphql.interceptor.WebSocketAuthInterceptor;
+import com.fiap.atividade3.model.entity.Consulta;
+import com.fiap.atividade3.notificacao.service.ConsultaBroadcastService;
+import com.fiap.atividade3.security.JwtUserPrincipal;
+import com.fiap.atividade3.security.JwtUtil;
+import com.fiap.atividade3.security.RevokedTokenRegistry;
+import com.fiap.atividade3.security.TokenVersionRegistry;
+import com.fiap.atividade3.service.event.ConsultaEvento;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.ContextValue;
+import org.springframework.graphql.data.method.annotation.SubscriptionMapping;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Controller;
+import reactor.core.publisher.Flux;
+
+import java.util.Objects;
+import java.util.function.Predicate;
+
+import static com.fiap.atividade3.repository.ConsultaSpecifications.eventoVisivelPara;
+
+
+@Controller
+public class ConsultaSubscriptionResolver {
+
+    @Autowired
+    private ConsultaBroadcastService consultaBroadcastService;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private RevokedTokenRegistry revokedTokenRegistry;
+
+    @Autowired
+    private TokenVersionRegistry tokenVersionRegistry;
+
+    @SubscriptionMapping
+    public Flux<Consulta> consultaCriada(@Argument Long medicoId, @Argument Long pacienteId, @Argument String setor,
+                                         @ContextValue(name = WebSocketAuthInterceptor.USUARIO, required = false) JwtUserPrincipal usuario,
+                                         @ContextValue(name = WebSocketAuthInterceptor.TOKEN, required = false) Claims token) {
+        JwtUserPrincipal assinante = autenticado(usuario);
+        return consultaBroadcastService.consultasCriadas(assinante(assinante, token),
+                filtro(medicoId, pacienteId, setor, assinante));
+    }
+
+    @SubscriptionMapping
+    public Flux<Consulta> consultaAtualizada(@Argument Long medicoId, @Argument Long pacienteId, @Argument String setor,
+                                             @ContextValue(name = WebSocketAuthInterceptor.USUARIO, required = false) JwtUserPrincipal usuario,
+                                             @ContextValue(name = WebSocketAuthInterceptor.TOKEN, required = false) Claims token) {
+        JwtUserPrincipal assinante = autenticado(usuario);
+        return consultaBroadcastService.consultasAtualizadas(assinante(assinante, token),
+                filtro(medicoId, pacienteId, setor, assinante));
+    }
+
+    private JwtUserPrincipal autenticado(JwtUserPrincipal usuarioWebSocket) {
+        JwtUserPrincipal usuario = usuarioWebSocket != null
+                ? usuarioWebSocket
+                : JwtUserPrincipal.from(SecurityContextHolder.getContext().getAuthentication());
+        if (usuario == null) {
+            throw new RuntimeException("Usuário não autenticado");
+        }
+        return usuario;
+    }
+
+    // WebSocket sessions were authenticated at connection_init, possibly long ago, so the token is checked again
+    // here; over HTTP the bearer token is still the authentication's credentials
+    private ConsultaBroadcastService.Assinante assinante(JwtUserPrincipal usuario, Claims tokenWebSocket) {
+        Claims token = tokenWebSocket != null ? tokenWebSocket : tokenHttp();
+        if (token == null) {
+            return new ConsultaBroadcastService.Assinante(usuario.getId(), null, 0);
+        }
+        if (revokedTokenRegistry.isRevoked(token.getId()) || !tokenVersionRegistry.isValid(token)) {
+            throw new RuntimeException("Token inválido");
+        }
+        Integer versao = token.get("ver", Integer.class);
+        return new ConsultaBroadcastService.Assinante(usuario.getId(), token.getId(), versao != null ? versao : 0);
+    }
+
+    private Claims tokenHttp() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !(authentication.getCredentials() instanceof String jwt)) {
+            return null;
+        }
+        try {
+            return jwtUtil.verifyToken(jwt);
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private Predicate<ConsultaEvento> filtro(Long medicoId, Long pacienteId, String setor, JwtUserPrincipal usuario) {
+        // Same visibility as reads: pacientes only receive events about their own consultations
+        return eventoVisivelPara(usuario.getRole(), usuario.getId())
+                .and(evento -> (medicoId == null || medicoId.equals(evento.getMedicoId()))
+                        && (pacienteId == null || pacienteId.equals(evento.getPacienteId()))
+                        && (setor == null || Objects.equals(setor, evento.getSetor())));
+    }
+}
@@ -1,10 +1,13 @@
 package com.fiap.atividade3.notificacao.listener;
 
 import com.fiap.atividade3.config.AsyncConfig;
-import com.fiap.atividade3.model.entity.Consulta;
+import com.fiap.atividade3.service.event.ConsultaEvento;
+import com.fiap.atividade3.service.event.ConsultaLoteEvento;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.support.AmqpHeaders;
+import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.stereotype.Component;
 
 
@@ -15,8 +18,8 @@ public class ConsultaEventListener {
 
 
     @RabbitListener(queues = AsyncConfig.CONSULTA_CREATED_QUEUE)
-    public void handleConsultaCreated(Consulta consulta) {
-        logger.info("🎯 [NOTIFICAÇÃO] Recebido evento de consulta criada - ID: {}", consulta.getId());
+    public void handleConsultaCreated(ConsultaEvento consulta) {
+        logger.info("🎯 [NOTIFICAÇÃO] Recebido evento de consulta criada - ID: {}", consulta.getConsultaId());
         
         try {
             // Processar notificações automáticas
@@ -24,8 +27,8 @@ public class ConsultaEventListener {
             
             // Log para auditoria
             logger.info("✅ [NOTIFICAÇÃO] Consulta criada processada com sucesso - Paciente: {}, Médico: {}, Data: {}", 
-                       consulta.getPaciente().getNome(),
-                       consulta.getMedico().getNome(),
+                       consulta.getPacienteNome(),
+                       consulta.getMedicoNome(),
                        consulta.getDataConsulta());
                        
         } catch (Exception e) {
@@ -35,8 +38,8 @@ public class ConsultaEventListener {
 
 
     @RabbitListener(queues = AsyncConfig.CONSULTA_UPDATED_QUEUE)
-    public void handleConsultaUpdated(Consulta consulta) {
-        logger.info("🎯 [NOTIFICAÇÃO] Recebido evento de consulta atualizada - ID: {}", consulta.getId());
+    public void handleConsultaUpdated(ConsultaEvento consulta) {
+        logger.info("🎯 [NOTIFICAÇÃO] Recebido evento de consulta atualizada - ID: {}", consulta.getConsultaId());
         
         try {
             // Processar notificações de atualização
@@ -44,8 +47,8 @@ public class ConsultaEventListener {
             
             // Log para auditoria
             logger.info("✅ [NOTIFICAÇÃO] Consulta atualizada processada com sucesso - ID: {}, Atualizada por: {}", 
-                       consulta.getId(),
-                       consulta.getMedico().getNome());
+                       consulta.getConsultaId(),
+                       consulta.getMedicoNome());
                        
         } catch (Exception e) {
             logger.error("❌ [NOTIFICAÇÃO] Erro ao processar consulta atualizada: {}", e.getMessage());
@@ -53,10 +56,30 @@ public class ConsultaEventListener {
     }
 
 
-    private void processarNotificacaoConsultaCriada(Consulta consulta) {
+    @RabbitListener(queues = AsyncConfig.CONSULTA_BATCH_QUEUE)
+    public void handleConsultaLote(ConsultaLoteEvento lote, @Header(AmqpHeaders.RECEIVED_ROUTING_KEY) String routingKey) {
+        logger.info("🎯 [NOTIFICAÇÃO] Recebido lote {} com {} consultas", routingKey, lote.getConsultas().size());
+        boolean criadas = AsyncConfig.CONSULTA_BATCH_CREATED_ROUTING_KEY.equals(routingKey);
+
+        // One failing item must not stop the notifications of the rest of the batch
+        for (ConsultaEvento consulta : lote.getConsultas()) {
+            try {
+                if (criadas) {
+                    processarNotificacaoConsultaCriada(consulta);
+                } else {
+                    processarNotificacaoConsultaAtualizada(consulta);
+                }
+            } catch (Exception e) {
+                logger.error("❌ [NOTIFICAÇÃO] Erro ao processar consulta {} do lote: {}", consulta.getConsultaId(), e.getMessage());
+            }
+        }
+    }
+
+
+    private void processarNotificacaoConsultaCriada(ConsultaEvento consulta) {
         // Simular processamento de notificações
-        logger.info("📧 Enviando confirmação de agendamento para: {}", consulta.getPaciente().getEmail());
-        logger.info("📱 Enviando SMS de lembrete para: {}", consulta.getPaciente().getTelefone());
+        logger.info("📧 Enviando confirmação de agendamento para: {}", consulta.getPacienteEmail());
+        logger.info("📱 Enviando SMS de lembrete para: {}", consulta.getPacienteTelefone());
         
         // Aqui você implementaria:
         // - Envio de email de confirmação
@@ -73,9 +96,9 @@ public class ConsultaEventListener {
     }
 
 
-    private void processarNotificacaoConsultaAtualizada(Consulta consulta) {
+    private void processarNotificacaoConsultaAtualizada(ConsultaEvento consulta) {
         // Simular processamento de notificações de atualização
-        logger.info("📧 Enviando atualização de consulta para: {}", consulta.getPaciente().getEmail());
+        logger.info("📧 Enviando atualização de consulta para: {}", consulta.getPacienteEmail());
         
         if (consulta.getDiagnostico() != null && !consulta.getDiagnostico().isEmpty()) {
             logger.info("🏥 Diagnóstico disponível - enviando notificação detalhada");
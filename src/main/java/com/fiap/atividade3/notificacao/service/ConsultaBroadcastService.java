@@ -0,0 +1,213 @@
+package com.fiap.atividade3.notificacao.service;
+
+import com.fiap.atividade3.config.AsyncConfig;
+import com.fiap.atividade3.model.entity.Consulta;
+import com.fiap.atividade3.repository.ConsultaRepository;
+import com.fiap.atividade3.security.UserSnapshot;
+import com.fiap.atividade3.service.CustomUserDetailsService;
+import com.fiap.atividade3.service.event.ConsultaEvento;
+import com.fiap.atividade3.service.event.ConsultaLoteEvento;
+import com.fiap.atividade3.service.event.TokenRevogadoEvent;
+import com.fiap.atividade3.service.event.UsuarioInvalidadoEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.support.AmqpHeaders;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.function.Predicate;
+
+
+// Per-node fan-out of consulta.exchange events to GraphQL subscribers
+@Service
+public class ConsultaBroadcastService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConsultaBroadcastService.class);
+
+    @Autowired
+    private ConsultaRepository consultaRepository;
+
+    @Autowired
+    private CustomUserDetailsService userDetailsService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${subscription.buffer-size:256}")
+    private int bufferSize;
+
+    // DROP_OLDEST keeps a bounded backlog per subscriber; LATEST keeps only the newest event
+    @Value("${subscription.overflow:DROP_OLDEST}")
+    private String overflow;
+
+    // Best effort: a subscriber without demand never slows down the others
+    private final Sinks.Many<Notificacao> criadas = Sinks.many().multicast().directBestEffort();
+
+    private final Sinks.Many<Notificacao> atualizadas = Sinks.many().multicast().directBestEffort();
+
+    // Revoked tokens and changed users; each subscription completes on the first one that concerns it
+    private final Sinks.Many<Encerramento> encerramentos = Sinks.many().multicast().directBestEffort();
+
+    private Counter descartadas;
+
+    @PostConstruct
+    public void init() {
+        descartadas = meterRegistry.counter("graphql.subscription.dropped");
+        Gauge.builder("graphql.subscription.subscribers", criadas, Sinks.Many::currentSubscriberCount)
+                .tag("event", "consultaCriada")
+                .register(meterRegistry);
+        Gauge.builder("graphql.subscription.subscribers", atualizadas, Sinks.Many::currentSubscriberCount)
+                .tag("event", "consultaAtualizada")
+                .register(meterRegistry);
+    }
+
+
+    @RabbitListener(queues = "#{consultaBroadcastQueue.name}")
+    public void handleConsultaEvento(ConsultaEvento evento, @Header(AmqpHeaders.RECEIVED_ROUTING_KEY) String routingKey) {
+        Sinks.Many<Notificacao> sink = AsyncConfig.CONSULTA_CREATED_ROUTING_KEY.equals(routingKey) ? criadas : atualizadas;
+        if (sink.currentSubscriberCount() == 0) {
+            return;
+        }
+        logger.debug("Broadcasting {} for consultation ID: {}", routingKey, evento.getConsultaId());
+        emitir(sink, evento);
+    }
+
+
+    @RabbitListener(queues = "#{consultaBatchBroadcastQueue.name}")
+    public void handleConsultaLote(ConsultaLoteEvento lote, @Header(AmqpHeaders.RECEIVED_ROUTING_KEY) String routingKey) {
+        Sinks.Many<Notificacao> sink = AsyncConfig.CONSULTA_BATCH_CREATED_ROUTING_KEY.equals(routingKey) ? criadas : atualizadas;
+        if (sink.currentSubscriberCount() == 0) {
+            return;
+        }
+        logger.debug("Broadcasting {} with {} consultations", routingKey, lote.getConsultas().size());
+        for (ConsultaEvento evento : lote.getConsultas()) {
+            emitir(sink, evento);
+        }
+    }
+
+
+    // Both arrive from the broker on every node, so a stream ends wherever its subscriber is connected
+    @EventListener
+    public void onTokenRevogado(TokenRevogadoEvent event) {
+        encerrar(new Encerramento(event.getTokenId(), null, 0));
+    }
+
+
+    @EventListener
+    public void onUsuarioInvalidado(UsuarioInvalidadoEvent event) {
+        // The cached user was evicted just before, so this is the committed state. Deactivated or deleted users
+        // lose every stream; otherwise only streams opened with a token older than the current version end
+        int versaoMinima = userDetailsService.buscar(event.getEmail())
+                .filter(usuario -> usuario.isActive() && usuario.getId().equals(event.getUsuarioId()))
+                .map(UserSnapshot::getTokenVersion)
+                .orElse(Integer.MAX_VALUE);
+        encerrar(new Encerramento(null, event.getUsuarioId(), versaoMinima));
+    }
+
+
+    private void encerrar(Encerramento encerramento) {
+        if (encerramentos.currentSubscriberCount() > 0) {
+            encerramentos.emitNext(encerramento, Sinks.EmitFailureHandler.busyLooping(Duration.ofMillis(100)));
+        }
+    }
+
+
+    private void emitir(Sinks.Many<Notificacao> sink, ConsultaEvento evento) {
+        sink.emitNext(new Notificacao(evento, carregar(evento.getConsultaId())),
+                Sinks.EmitFailureHandler.busyLooping(Duration.ofMillis(100)));
+    }
+
+
+    public Flux<Consulta> consultasCriadas(Assinante assinante, Predicate<ConsultaEvento> filtro) {
+        return assinar(criadas, assinante, filtro);
+    }
+
+
+    public Flux<Consulta> consultasAtualizadas(Assinante assinante, Predicate<ConsultaEvento> filtro) {
+        return assinar(atualizadas, assinante, filtro);
+    }
+
+
+    private Flux<Consulta> assinar(Sinks.Many<Notificacao> sink, Assinante assinante, Predicate<ConsultaEvento> filtro) {
+        // Filters run on the flat event, so non-matching subscribers never load or serialize anything
+        Flux<Notificacao> eventos = sink.asFlux().filter(notificacao -> filtro.test(notificacao.evento));
+        Flux<Notificacao> limitados = "LATEST".equalsIgnoreCase(overflow)
+                ? eventos.onBackpressureLatest()
+                : eventos.onBackpressureBuffer(bufferSize, descartada -> descartadas.increment(), BufferOverflowStrategy.DROP_OLDEST);
+        return limitados.concatMap(notificacao -> notificacao.consulta)
+                .takeUntilOther(encerramentos.asFlux().filter(encerramento -> encerramento.encerra(assinante)));
+    }
+
+
+    // Loaded at most once per event and node, and only if some subscriber matched
+    private Mono<Consulta> carregar(Long consultaId) {
+        return Mono.fromCallable(() -> consultaRepository.findComRelacoesById(consultaId).orElse(null))
+                .subscribeOn(Schedulers.boundedElastic())
+                .cache();
+    }
+
+
+    // Who holds a subscription: the user and the token it was opened with (tokenId is null without a JWT)
+    public static class Assinante {
+
+        private final Long usuarioId;
+
+        private final String tokenId;
+
+        private final int tokenVersion;
+
+        public Assinante(Long usuarioId, String tokenId, int tokenVersion) {
+            this.usuarioId = usuarioId;
+            this.tokenId = tokenId;
+            this.tokenVersion = tokenVersion;
+        }
+    }
+
+
+    private static class Encerramento {
+
+        private final String tokenId;
+
+        private final Long usuarioId;
+
+        private final int versaoMinima;
+
+        Encerramento(String tokenId, Long usuarioId, int versaoMinima) {
+            this.tokenId = tokenId;
+            this.usuarioId = usuarioId;
+            this.versaoMinima = versaoMinima;
+        }
+
+        boolean encerra(Assinante assinante) {
+            return (tokenId != null && tokenId.equals(assinante.tokenId))
+                    || (usuarioId != null && usuarioId.equals(assinante.usuarioId) && assinante.tokenVersion < versaoMinima);
+        }
+    }
+
+
+    private static class Notificacao {
+
+        private final ConsultaEvento evento;
+
+        private final Mono<Consulta> consulta;
+
+        Notificacao(ConsultaEvento evento, Mono<Consulta> consulta) {
+            this.evento = evento;
+            this.consulta = consulta;
+        }
+    }
+}
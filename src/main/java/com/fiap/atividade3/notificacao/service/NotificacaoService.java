@@ -7,6 +7,8 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+
 
 @Service
 public class NotificacaoService {
@@ -43,6 +45,25 @@ public class NotificacaoService {
     }
 
 
+    public void processarConsultasCriadasEmLote(List<Consulta> consultas) {
+        logger.info("Processando notificações para {} consultas criadas em lote", consultas.size());
+
+        // Um único evento para o lote inteiro
+        asyncMessagingService.publishConsultasCreated(consultas);
+
+        consultas.forEach(consulta -> enviarNotificacaoPaciente(consulta, "CONSULTA_CRIADA"));
+    }
+
+
+    public void processarConsultasAtualizadasEmLote(List<Consulta> consultas) {
+        logger.info("Processando notificações para {} consultas atualizadas em lote", consultas.size());
+
+        asyncMessagingService.publishConsultasUpdated(consultas);
+
+        consultas.forEach(consulta -> enviarNotificacaoPaciente(consulta, "CONSULTA_ATUALIZADA"));
+    }
+
+
     private void enviarNotificacaoPaciente(Consulta consulta, String tipoEvento) {
         try {
             String mensagem = construirMensagemNotificacao(consulta, tipoEvento);
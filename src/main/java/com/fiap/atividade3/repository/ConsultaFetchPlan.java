@@ -0,0 +1,36 @@
+package com.fiap.atividade3.repository;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+
+// Which Consulta columns and relations a read actually needs; id and dataConsulta are always loaded
+public class ConsultaFetchPlan {
+
+    public static final Set<String> CAMPOS = Set.of(
+            "motivo", "diagnostico", "prescricao", "observacoes", "createdAt", "updatedAt");
+
+    public static final Set<String> RELACOES = Set.of("paciente", "medico", "enfermeiro");
+
+    private final Set<String> campos;
+
+    private final Set<String> relacoes;
+
+    public ConsultaFetchPlan(Set<String> campos, Set<String> relacoes) {
+        this.campos = Collections.unmodifiableSet(new LinkedHashSet<>(campos));
+        this.relacoes = Collections.unmodifiableSet(new LinkedHashSet<>(relacoes));
+    }
+
+    public static ConsultaFetchPlan completo() {
+        return new ConsultaFetchPlan(CAMPOS, RELACOES);
+    }
+
+    public Set<String> getCampos() {
+        return campos;
+    }
+
+    public Set<String> getRelacoes() {
+        return relacoes;
+    }
+}
@@ -0,0 +1,15 @@
+package com.fiap.atividade3.repository;
+
+import com.fiap.atividade3.model.entity.Consulta;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
+
+
+public interface ConsultaProjecaoRepository {
+
+    // Keyset page over (dataConsulta, id) selecting only the columns in the plan
+    @IndiceRequerido(tabela = "consultas", colunas = {"data_consulta", "id"})
+    Window<Consulta> buscarPaginaProjetada(Specification<Consulta> specification, ConsultaFetchPlan plano,
+                                           KeysetScrollPosition posicao, int limite);
+}
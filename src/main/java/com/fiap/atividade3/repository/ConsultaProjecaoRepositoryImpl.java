@@ -0,0 +1,126 @@
+package com.fiap.atividade3.repository;
+
+import com.fiap.atividade3.model.entity.Consulta;
+import com.fiap.atividade3.model.entity.Enfermeiro;
+import com.fiap.atividade3.model.entity.Medico;
+import com.fiap.atividade3.model.entity.Paciente;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+
+public class ConsultaProjecaoRepositoryImpl implements ConsultaProjecaoRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    public Window<Consulta> buscarPaginaProjetada(Specification<Consulta> specification, ConsultaFetchPlan plano,
+                                                  KeysetScrollPosition posicao, int limite) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Consulta> root = query.from(Consulta.class);
+        Path<Long> id = root.get("id");
+        Path<LocalDateTime> dataConsulta = root.get("dataConsulta");
+
+        List<Selection<?>> selecoes = new ArrayList<>();
+        selecoes.add(id.alias("id"));
+        selecoes.add(dataConsulta.alias("dataConsulta"));
+        for (String campo : plano.getCampos()) {
+            selecoes.add(root.get(campo).alias(campo));
+        }
+        for (String relacao : plano.getRelacoes()) {
+            // The target id is the foreign key column itself, so no join is generated
+            selecoes.add(root.get(relacao).get("id").alias(relacao));
+        }
+
+        Predicate predicate = specification.toPredicate(root, query, cb);
+        if (!posicao.isInitial()) {
+            Map<String, ?> chaves = posicao.getKeys();
+            LocalDateTime ultimaData = toLocalDateTime(chaves.get("dataConsulta"));
+            Long ultimoId = ((Number) chaves.get("id")).longValue();
+            Predicate depois = cb.or(
+                    cb.lessThan(dataConsulta, ultimaData),
+                    cb.and(cb.equal(dataConsulta, ultimaData), cb.lessThan(id, ultimoId)));
+            predicate = predicate != null ? cb.and(predicate, depois) : depois;
+        }
+
+        query.multiselect(selecoes)
+                .orderBy(cb.desc(dataConsulta), cb.desc(id));
+        if (predicate != null) {
+            query.where(predicate);
+        }
+
+        // One extra row tells whether there is a next page
+        List<Tuple> linhas = entityManager.createQuery(query)
+                .setMaxResults(limite + 1)
+                .getResultList();
+
+        boolean temProxima = linhas.size() > limite;
+        List<Consulta> consultas = new ArrayList<>(Math.min(linhas.size(), limite));
+        for (Tuple linha : linhas.subList(0, Math.min(linhas.size(), limite))) {
+            consultas.add(toConsulta(linha, plano));
+        }
+
+        return Window.from(consultas, indice -> ScrollPosition.forward(Map.of(
+                "dataConsulta", consultas.get(indice).getDataConsulta(),
+                "id", consultas.get(indice).getId())), temProxima);
+    }
+
+
+    // Unmanaged Consulta holding only the planned columns; relations are uninitialized references
+    private Consulta toConsulta(Tuple linha, ConsultaFetchPlan plano) {
+        Consulta consulta = new Consulta();
+        consulta.setId(linha.get("id", Long.class));
+        consulta.setDataConsulta(linha.get("dataConsulta", LocalDateTime.class));
+        for (String campo : plano.getCampos()) {
+            switch (campo) {
+                case "motivo" -> consulta.setMotivo(linha.get(campo, String.class));
+                case "diagnostico" -> consulta.setDiagnostico(linha.get(campo, String.class));
+                case "prescricao" -> consulta.setPrescricao(linha.get(campo, String.class));
+                case "observacoes" -> consulta.setObservacoes(linha.get(campo, String.class));
+                case "createdAt" -> consulta.setCreatedAt(linha.get(campo, LocalDateTime.class));
+                case "updatedAt" -> consulta.setUpdatedAt(linha.get(campo, LocalDateTime.class));
+                default -> throw new IllegalArgumentException("Campo desconhecido: " + campo);
+            }
+        }
+        for (String relacao : plano.getRelacoes()) {
+            Long relacaoId = linha.get(relacao, Long.class);
+            if (relacaoId == null) {
+                continue;
+            }
+            switch (relacao) {
+                case "paciente" -> consulta.setPaciente(entityManager.getReference(Paciente.class, relacaoId));
+                case "medico" -> consulta.setMedico(entityManager.getReference(Medico.class, relacaoId));
+                case "enfermeiro" -> consulta.setEnfermeiro(entityManager.getReference(Enfermeiro.class, relacaoId));
+                default -> throw new IllegalArgumentException("Relação desconhecida: " + relacao);
+            }
+        }
+        return consulta;
+    }
+
+
+    private LocalDateTime toLocalDateTime(Object valor) {
+        if (valor instanceof LocalDateTime data) {
+            return data;
+        }
+        return LocalDateTime.parse(String.valueOf(valor));
+    }
+}
@@ -3,51 +3,93 @@ package com.fiap.atividade3.repository;
 import com.fiap.atividade3.model.entity.Consulta;
 import com.fiap.atividade3.model.entity.Medico;
 import com.fiap.atividade3.model.entity.Paciente;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface ConsultaRepository extends JpaRepository<Consulta, Long> {
+public interface ConsultaRepository extends JpaRepository<Consulta, Long>, JpaSpecificationExecutor<Consulta>,
+        ConsultaProjecaoRepository {
 
+    // Single query with the three relations, for payloads shared by many subscribers
+    @IndiceRequerido(tabela = "consultas", colunas = {"id"})
+    @EntityGraph(attributePaths = {"paciente", "medico", "enfermeiro"})
+    Optional<Consulta> findComRelacoesById(Long id);
+
+    @IndiceRequerido(tabela = "consultas", colunas = {"id"})
+    @EntityGraph(attributePaths = {"paciente", "medico", "enfermeiro"})
+    List<Consulta> findComRelacoesByIdIn(Collection<Long> ids);
+
+    @IndiceRequerido(tabela = "consultas", colunas = {"id"})
+    @Query("SELECT c.id FROM Consulta c WHERE c.id IN :ids")
+    List<Long> findIdsExistentes(@Param("ids") Collection<Long> ids);
+
+    @IndiceRequerido(tabela = "consultas", colunas = {"paciente_id", "data_consulta"})
     List<Consulta> findByPaciente(Paciente paciente);
 
+    @IndiceRequerido(tabela = "consultas", colunas = {"paciente_id", "data_consulta"})
     List<Consulta> findByPacienteId(Long pacienteId);
 
+    @IndiceRequerido(tabela = "consultas", colunas = {"medico_id", "data_consulta"})
     List<Consulta> findByMedico(Medico medico);
 
+    @IndiceRequerido(tabela = "consultas", colunas = {"medico_id", "data_consulta"})
     List<Consulta> findByMedicoId(Long medicoId);
 
+    @IndiceRequerido(tabela = "consultas", colunas = {"data_consulta"})
     @Query("SELECT c FROM Consulta c WHERE c.dataConsulta BETWEEN :startDate AND :endDate ORDER BY c.dataConsulta DESC")
     List<Consulta> findByDataConsultaBetween(@Param("startDate") LocalDateTime startDate, 
                                            @Param("endDate") LocalDateTime endDate);
 
+    @IndiceRequerido(tabela = "consultas", colunas = {"paciente_id", "data_consulta"})
     @Query("SELECT c FROM Consulta c WHERE c.paciente.id = :pacienteId AND c.dataConsulta BETWEEN :startDate AND :endDate ORDER BY c.dataConsulta DESC")
     List<Consulta> findByPacienteIdAndDataConsultaBetween(@Param("pacienteId") Long pacienteId,
                                                          @Param("startDate") LocalDateTime startDate,
                                                          @Param("endDate") LocalDateTime endDate);
 
+    @IndiceRequerido(tabela = "consultas", colunas = {"medico_id", "data_consulta"})
     @Query("SELECT c FROM Consulta c WHERE c.medico.id = :medicoId AND c.dataConsulta BETWEEN :startDate AND :endDate ORDER BY c.dataConsulta DESC")
     List<Consulta> findByMedicoIdAndDataConsultaBetween(@Param("medicoId") Long medicoId,
                                                        @Param("startDate") LocalDateTime startDate,
                                                        @Param("endDate") LocalDateTime endDate);
 
+    @IndiceRequerido(tabela = "consultas", colunas = {"data_consulta"})
     @Query("SELECT c FROM Consulta c WHERE c.dataConsulta >= :thirtyDaysAgo ORDER BY c.dataConsulta DESC")
     List<Consulta> findRecentConsultations(@Param("thirtyDaysAgo") LocalDateTime thirtyDaysAgo);
 
+    @IndiceRequerido(tabela = "consultas", colunas = {"paciente_id", "data_consulta"})
     List<Consulta> findByPacienteIdOrderByDataConsultaDesc(Long pacienteId);
 
+    @IndiceRequerido(tabela = "consultas", colunas = {"medico_id", "data_consulta"})
     List<Consulta> findByMedicoIdOrderByDataConsultaDesc(Long medicoId);
 
+    // Batch loads for the GraphQL Medico/Paciente/Enfermeiro consultation lists
+    @IndiceRequerido(tabela = "consultas", colunas = {"medico_id", "data_consulta"})
+    List<Consulta> findByMedicoIdInOrderByDataConsultaDesc(Collection<Long> medicoIds);
+
+    @IndiceRequerido(tabela = "consultas", colunas = {"paciente_id", "data_consulta"})
+    List<Consulta> findByPacienteIdInOrderByDataConsultaDesc(Collection<Long> pacienteIds);
+
+    @IndiceRequerido(tabela = "consultas", colunas = {"enfermeiro_id", "data_consulta"})
+    List<Consulta> findByEnfermeiroIdInOrderByDataConsultaDesc(Collection<Long> enfermeiroIds);
+
+    @IndiceRequerido(tabela = "consultas", colunas = {"paciente_id", "data_consulta"})
     List<Consulta> findByPacienteIdAndDataConsultaAfterOrderByDataConsultaAsc(Long pacienteId, LocalDateTime dataConsulta);
 
+    @IndiceRequerido(tabela = "medicos", colunas = {"especialidade"})
+    @IndiceRequerido(tabela = "consultas", colunas = {"medico_id", "data_consulta"})
     @Query("SELECT c FROM Consulta c WHERE c.medico.especialidade = :especialidade ORDER BY c.dataConsulta DESC")
     List<Consulta> findByMedicoEspecialidadeOrderByDataConsultaDesc(@Param("especialidade") String especialidade);
 
+    @IndiceRequerido(tabela = "consultas", colunas = {"data_consulta"})
     @Query("SELECT COUNT(c) FROM Consulta c WHERE c.dataConsulta >= :dataConsulta")
     long countByDataConsultaAfter(@Param("dataConsulta") LocalDateTime dataConsulta);
 }
@@ -0,0 +1,68 @@
+package com.fiap.atividade3.repository;
+
+import com.fiap.atividade3.model.entity.Consulta;
+import com.fiap.atividade3.model.entity.Usuario;
+import com.fiap.atividade3.model.enums.UserRole;
+import com.fiap.atividade3.service.event.ConsultaEvento;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.function.Predicate;
+
+
+// Reusable predicates for Consulta, including the row-level access rules per role
+public final class ConsultaSpecifications {
+
+    private ConsultaSpecifications() {
+    }
+
+    // Pacientes only see their own consultations; medical staff see all of them. Exhaustive on purpose: a new role
+    // does not compile until it is given a rule here and in eventoVisivelPara
+    public static Specification<Consulta> visivelPara(Usuario usuario) {
+        return (root, query, cb) -> switch (usuario.getRole()) {
+            // Compares the paciente_id foreign key directly, no join
+            case PACIENTE -> cb.equal(root.get("paciente").get("id"), usuario.getId());
+            case MEDICO, ENFERMEIRO -> cb.conjunction();
+        };
+    }
+
+    // The same rule for consultation events pushed to subscribers
+    public static Predicate<ConsultaEvento> eventoVisivelPara(UserRole role, Long usuarioId) {
+        return switch (role) {
+            case PACIENTE -> evento -> usuarioId.equals(evento.getPacienteId());
+            case MEDICO, ENFERMEIRO -> evento -> true;
+        };
+    }
+
+    public static Specification<Consulta> todas() {
+        return (root, query, cb) -> cb.conjunction();
+    }
+
+    public static Specification<Consulta> comId(Long id) {
+        return (root, query, cb) -> cb.equal(root.get("id"), id);
+    }
+
+    public static Specification<Consulta> doPaciente(Long pacienteId) {
+        return (root, query, cb) -> cb.equal(root.get("paciente").get("id"), pacienteId);
+    }
+
+    public static Specification<Consulta> doMedico(Long medicoId) {
+        return (root, query, cb) -> cb.equal(root.get("medico").get("id"), medicoId);
+    }
+
+    public static Specification<Consulta> daEspecialidade(String especialidade) {
+        return (root, query, cb) -> cb.equal(root.get("medico").get("especialidade"), especialidade);
+    }
+
+    public static Specification<Consulta> entre(LocalDateTime inicio, LocalDateTime fim) {
+        return (root, query, cb) -> cb.between(root.get("dataConsulta"), inicio, fim);
+    }
+
+    public static Specification<Consulta> aPartirDe(LocalDateTime dataConsulta) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("dataConsulta"), dataConsulta);
+    }
+
+    public static Specification<Consulta> posterioresA(LocalDateTime dataConsulta) {
+        return (root, query, cb) -> cb.greaterThan(root.get("dataConsulta"), dataConsulta);
+    }
+}
@@ -0,0 +1,17 @@
+package com.fiap.atividade3.repository;
+
+import com.fiap.atividade3.model.entity.DiretorioEnfermeiro;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+
+@Repository
+public interface DiretorioEnfermeiroRepository extends JpaRepository<DiretorioEnfermeiro, Long> {
+
+
+    @IndiceRequerido(tabela = "diretorio_enfermeiros", colunas = {"setor"})
+    List<DiretorioEnfermeiro> findBySetor(String setor, Sort sort);
+}
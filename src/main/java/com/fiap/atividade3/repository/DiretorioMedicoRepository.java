@@ -0,0 +1,17 @@
+package com.fiap.atividade3.repository;
+
+import com.fiap.atividade3.model.entity.DiretorioMedico;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+
+@Repository
+public interface DiretorioMedicoRepository extends JpaRepository<DiretorioMedico, Long> {
+
+
+    @IndiceRequerido(tabela = "diretorio_medicos", colunas = {"especialidade"})
+    List<DiretorioMedico> findByEspecialidade(String especialidade, Sort sort);
+}
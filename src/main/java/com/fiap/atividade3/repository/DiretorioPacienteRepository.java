@@ -0,0 +1,10 @@
+package com.fiap.atividade3.repository;
+
+import com.fiap.atividade3.model.entity.DiretorioPaciente;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+
+@Repository
+public interface DiretorioPacienteRepository extends JpaRepository<DiretorioPaciente, Long> {
+}
@@ -1,8 +1,11 @@
 package com.fiap.atividade3.repository;
 
 import com.fiap.atividade3.model.entity.Enfermeiro;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -14,18 +17,25 @@ import java.util.Optional;
 public interface EnfermeiroRepository extends JpaRepository<Enfermeiro, Long> {
 
 
+    @IndiceRequerido(tabela = "enfermeiros", colunas = {"coren"})
     Optional<Enfermeiro> findByCoren(String coren);
 
+    @IndiceRequerido(tabela = "enfermeiros", colunas = {"setor"})
     List<Enfermeiro> findBySetor(String setor);
 
+    @IndiceRequerido(tabela = "usuarios", filtro = "active")
+    @IndiceRequerido(tabela = "enfermeiros", colunas = {"setor"})
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "usuarios-ativos")})
     @Query("SELECT e FROM Enfermeiro e WHERE e.setor = :setor AND e.active = true")
     List<Enfermeiro> findBySetorAndActiveTrue(@Param("setor") String setor);
 
+    @IndiceRequerido(tabela = "usuarios", filtro = "active")
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "usuarios-ativos")})
     @Query("SELECT e FROM Enfermeiro e WHERE e.active = true")
     List<Enfermeiro> findAllActiveTrue();
 
+    @IndiceRequerido(tabela = "enfermeiros", colunas = {"coren"})
     boolean existsByCoren(String coren);
-
-    @Query("SELECT e FROM Enfermeiro e WHERE LOWER(e.nome) LIKE LOWER(CONCAT('%', :nome, '%')) AND e.active = true")
-    List<Enfermeiro> findByNomeContainingIgnoreCaseAndActiveTrue(@Param("nome") String nome);
 }
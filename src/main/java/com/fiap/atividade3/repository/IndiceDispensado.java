@@ -0,0 +1,16 @@
+package com.fiap.atividade3.repository;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+
+// Explicit opt-out from IndiceRequeridoVerifier for a repository query that is meant to run without a supporting
+// index, e.g. a full listing. Every other query method must declare its index with @IndiceRequerido.
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface IndiceDispensado {
+
+    String motivo();
+}
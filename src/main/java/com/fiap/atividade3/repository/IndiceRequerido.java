@@ -0,0 +1,30 @@
+package com.fiap.atividade3.repository;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Repeatable;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+
+// Declares the index a repository query relies on: some index on the table must start with these columns.
+// With filtro, the query only reads rows where that boolean column is true: the index must be partial on it
+// (WHERE filtro = true) or, where partial indexes do not exist, lead with it. Checked at startup by
+// IndiceRequeridoVerifier.
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+@Repeatable(IndiceRequerido.Lista.class)
+public @interface IndiceRequerido {
+
+    String tabela();
+
+    String[] colunas() default {};
+
+    String filtro() default "";
+
+    @Retention(RetentionPolicy.RUNTIME)
+    @Target(ElementType.METHOD)
+    @interface Lista {
+        IndiceRequerido[] value();
+    }
+}
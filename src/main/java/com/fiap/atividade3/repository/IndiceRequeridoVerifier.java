@@ -0,0 +1,200 @@
+package com.fiap.atividade3.repository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ListableBeanFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.repository.support.Repositories;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+
+// Fails startup when a repository query has no index starting with the columns its @IndiceRequerido declares,
+// or declares nothing at all, so a missing migration shows up at deploy time instead of as sequential scans in
+// production. Queries that scan on purpose say so with @IndiceDispensado.
+@Component
+public class IndiceRequeridoVerifier {
+
+    private static final Logger logger = LoggerFactory.getLogger(IndiceRequeridoVerifier.class);
+
+    @Autowired
+    private ListableBeanFactory beanFactory;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Value("${indices.verificar:true}")
+    private boolean verificar;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void verificarIndices() throws SQLException {
+        if (!verificar) {
+            return;
+        }
+
+        Set<Class<?>> interfaces = new LinkedHashSet<>();
+        Repositories repositories = new Repositories(beanFactory);
+        for (Class<?> dominio : repositories) {
+            repositories.getRepositoryInformationFor(dominio)
+                    .ifPresent(informacao -> interfaces.add(informacao.getRepositoryInterface()));
+        }
+
+        List<String> ausentes = new ArrayList<>();
+        List<String> semDeclaracao = new ArrayList<>();
+        int verificados = 0;
+        int dispensados = 0;
+        try (Connection connection = dataSource.getConnection()) {
+            DatabaseMetaData metaData = connection.getMetaData();
+            Map<String, List<Indice>> indicesPorTabela = new HashMap<>();
+            for (Class<?> repositorio : interfaces) {
+                for (Method metodo : repositorio.getMethods()) {
+                    // CRUD methods inherited from Spring Data go through the primary key or read everything
+                    if (metodo.getDeclaringClass().getName().startsWith("org.springframework.") || metodo.isDefault()) {
+                        continue;
+                    }
+                    if (metodo.isAnnotationPresent(IndiceDispensado.class)) {
+                        dispensados++;
+                        continue;
+                    }
+                    IndiceRequerido[] requeridos = metodo.getAnnotationsByType(IndiceRequerido.class);
+                    if (requeridos.length == 0) {
+                        semDeclaracao.add(repositorio.getSimpleName() + "." + metodo.getName());
+                    }
+                    for (IndiceRequerido requerido : requeridos) {
+                        verificados++;
+                        List<Indice> indices = indicesPorTabela.computeIfAbsent(requerido.tabela(),
+                                tabela -> indices(metaData, connection, tabela));
+                        if (!suportado(indices, requerido)) {
+                            ausentes.add(repositorio.getSimpleName() + "." + metodo.getName() + " -> " + descrever(requerido));
+                        }
+                    }
+                }
+            }
+        }
+
+        List<String> erros = new ArrayList<>();
+        if (!semDeclaracao.isEmpty()) {
+            erros.add("Consultas sem @IndiceRequerido ou @IndiceDispensado: " + String.join(", ", semDeclaracao));
+        }
+        if (!ausentes.isEmpty()) {
+            erros.add("Consultas sem índice de suporte: " + String.join("; ", ausentes));
+        }
+        if (!erros.isEmpty()) {
+            throw new IllegalStateException(String.join(". ", erros));
+        }
+        logger.info("Index check passed for {} repository query requirements ({} queries exempted)", verificados, dispensados);
+    }
+
+
+    private boolean suportado(List<Indice> indices, IndiceRequerido requerido) {
+        String filtro = requerido.filtro();
+        for (Indice indice : indices) {
+            if (filtro.isEmpty()) {
+                if (indice.comecaCom(List.of(requerido.colunas()))) {
+                    return true;
+                }
+                continue;
+            }
+            if (indice.parcialEm(filtro) && indice.comecaCom(List.of(requerido.colunas()))) {
+                return true;
+            }
+            // Databases without partial indexes: the filter column leads, the declared columns follow
+            List<String> comFiltro = new ArrayList<>();
+            comFiltro.add(filtro);
+            comFiltro.addAll(List.of(requerido.colunas()));
+            if (indice.comecaCom(comFiltro)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+
+    private static String descrever(IndiceRequerido requerido) {
+        String descricao = requerido.tabela() + " (" + String.join(", ", requerido.colunas()) + ")";
+        return requerido.filtro().isEmpty() ? descricao : descricao + " WHERE " + requerido.filtro() + " = true";
+    }
+
+
+    // Column lists and partial index predicates of every index on the table, in index order
+    private List<Indice> indices(DatabaseMetaData metaData, Connection connection, String tabela) {
+        Map<String, TreeMap<Integer, String>> colunasPorIndice = new HashMap<>();
+        Map<String, String> filtroPorIndice = new HashMap<>();
+        try {
+            String nome = metaData.storesUpperCaseIdentifiers() ? tabela.toUpperCase(Locale.ROOT) : tabela.toLowerCase(Locale.ROOT);
+            try (ResultSet rs = metaData.getIndexInfo(connection.getCatalog(), connection.getSchema(), nome, false, true)) {
+                while (rs.next()) {
+                    String indice = rs.getString("INDEX_NAME");
+                    String coluna = rs.getString("COLUMN_NAME");
+                    if (indice != null && coluna != null) {
+                        colunasPorIndice.computeIfAbsent(indice, key -> new TreeMap<>())
+                                .put((int) rs.getShort("ORDINAL_POSITION"), coluna);
+                        String filtro = rs.getString("FILTER_CONDITION");
+                        if (filtro != null) {
+                            filtroPorIndice.put(indice, filtro);
+                        }
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Não foi possível ler os índices da tabela " + tabela, e);
+        }
+
+        List<Indice> indices = new ArrayList<>();
+        colunasPorIndice.forEach((indice, colunas) ->
+                indices.add(new Indice(new ArrayList<>(colunas.values()), filtroPorIndice.get(indice))));
+        return indices;
+    }
+
+
+    private static class Indice {
+
+        private final List<String> colunas;
+
+        // Predicate of a partial index as the driver reports it, e.g. "(active = true)"; null for full indexes
+        private final String filtro;
+
+        Indice(List<String> colunas, String filtro) {
+            this.colunas = colunas;
+            this.filtro = filtro;
+        }
+
+        boolean comecaCom(List<String> prefixo) {
+            if (colunas.size() < prefixo.size()) {
+                return false;
+            }
+            for (int i = 0; i < prefixo.size(); i++) {
+                if (!colunas.get(i).equalsIgnoreCase(prefixo.get(i))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        boolean parcialEm(String coluna) {
+            if (filtro == null) {
+                return false;
+            }
+            String predicado = filtro.replaceAll("[\\s()\"]", "").toLowerCase(Locale.ROOT);
+            String alvo = coluna.toLowerCase(Locale.ROOT);
+            return predicado.equals(alvo) || predicado.equals(alvo + "=true");
+        }
+    }
+}
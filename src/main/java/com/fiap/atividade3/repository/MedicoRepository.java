@@ -1,8 +1,11 @@
 package com.fiap.atividade3.repository;
 
 import com.fiap.atividade3.model.entity.Medico;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -14,23 +17,29 @@ import java.util.Optional;
 public interface MedicoRepository extends JpaRepository<Medico, Long> {
 
 
+    @IndiceRequerido(tabela = "medicos", colunas = {"crm"})
     Optional<Medico> findByCrm(String crm);
 
 
+    @IndiceRequerido(tabela = "medicos", colunas = {"especialidade"})
     List<Medico> findByEspecialidade(String especialidade);
 
 
+    @IndiceRequerido(tabela = "usuarios", filtro = "active")
+    @IndiceRequerido(tabela = "medicos", colunas = {"especialidade"})
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "usuarios-ativos")})
     @Query("SELECT m FROM Medico m WHERE m.especialidade = :especialidade AND m.active = true")
     List<Medico> findByEspecialidadeAndActiveTrue(@Param("especialidade") String especialidade);
 
 
+    @IndiceRequerido(tabela = "usuarios", filtro = "active")
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "usuarios-ativos")})
     @Query("SELECT m FROM Medico m WHERE m.active = true")
     List<Medico> findAllActiveTrue();
 
 
+    @IndiceRequerido(tabela = "medicos", colunas = {"crm"})
     boolean existsByCrm(String crm);
-
-
-    @Query("SELECT m FROM Medico m WHERE LOWER(m.nome) LIKE LOWER(CONCAT('%', :nome, '%')) AND m.active = true")
-    List<Medico> findByNomeContainingIgnoreCaseAndActiveTrue(@Param("nome") String nome);
 }
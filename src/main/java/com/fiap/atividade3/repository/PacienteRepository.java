@@ -1,11 +1,15 @@
 package com.fiap.atividade3.repository;
 
 import com.fiap.atividade3.model.entity.Paciente;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,19 +18,27 @@ import java.util.Optional;
 public interface PacienteRepository extends JpaRepository<Paciente, Long> {
 
 
+    @IndiceRequerido(tabela = "pacientes", colunas = {"cpf"})
     Optional<Paciente> findByCpf(String cpf);
 
 
+    @IndiceRequerido(tabela = "usuarios", filtro = "active")
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "usuarios-ativos")})
     @Query("SELECT p FROM Paciente p WHERE p.active = true")
     List<Paciente> findAllActiveTrue();
 
 
+    @IndiceRequerido(tabela = "pacientes", colunas = {"cpf"})
     boolean existsByCpf(String cpf);
 
 
-    @Query("SELECT p FROM Paciente p WHERE LOWER(p.nome) LIKE LOWER(CONCAT('%', :nome, '%')) AND p.active = true")
-    List<Paciente> findByNomeContainingIgnoreCaseAndActiveTrue(@Param("nome") String nome);
+    @IndiceRequerido(tabela = "pacientes", colunas = {"cpf"})
+    @Query("SELECT p.cpf FROM Paciente p WHERE p.cpf IN :cpfs")
+    List<String> findCpfsExistentes(@Param("cpfs") Collection<String> cpfs);
 
 
+
+    @IndiceDispensado(motivo = "Not on a request path; telefone is neither unique nor indexed")
     Optional<Paciente> findByTelefone(String telefone);
 }
@@ -0,0 +1,80 @@
+package com.fiap.atividade3.repository;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Window;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+
+// Query latency and returned row count per repository method
+public class RepositoryMetricsInterceptor implements MethodInterceptor {
+
+    private final String repository;
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    public RepositoryMetricsInterceptor(String repository, ObjectProvider<MeterRegistry> meterRegistry) {
+        this.repository = repository;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        String method = invocation.getMethod().getName();
+        MeterRegistry registry = meterRegistry.getObject();
+        Timer.Sample sample = Timer.start(registry);
+        String outcome = "success";
+        try {
+            Object result = invocation.proceed();
+            long rows = rows(result);
+            if (rows >= 0) {
+                DistributionSummary.builder("repository.rows")
+                        .tag("repository", repository)
+                        .tag("method", method)
+                        .register(registry)
+                        .record(rows);
+            }
+            return result;
+        } catch (Throwable e) {
+            outcome = "error";
+            throw e;
+        } finally {
+            sample.stop(Timer.builder("repository.query")
+                    .tag("repository", repository)
+                    .tag("method", method)
+                    .tag("outcome", outcome)
+                    .register(registry));
+        }
+    }
+
+    // -1 for results that are not rows (counts, flags, streams still open)
+    private long rows(Object result) {
+        if (result == null) {
+            return 0;
+        }
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof Slice<?> slice) {
+            return slice.getNumberOfElements();
+        }
+        if (result instanceof Window<?> window) {
+            return window.size();
+        }
+        if (result instanceof Optional<?> optional) {
+            return optional.isPresent() ? 1 : 0;
+        }
+        if (result instanceof Number || result instanceof Boolean || result instanceof Stream<?>) {
+            return -1;
+        }
+        return 1;
+    }
+}
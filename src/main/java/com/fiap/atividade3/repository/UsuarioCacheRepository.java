@@ -0,0 +1,15 @@
+package com.fiap.atividade3.repository;
+
+import com.fiap.atividade3.model.entity.Usuario;
+
+import java.util.Collection;
+import java.util.List;
+
+
+public interface UsuarioCacheRepository {
+
+    // Users by id, read from the second-level cache first; only the misses reach the database, in one IN query.
+    // findAllById always queries, since the cache is not consulted for JPQL results
+    @IndiceRequerido(tabela = "usuarios", colunas = {"id"})
+    <T extends Usuario> List<T> carregarPorIds(Class<T> tipo, Collection<Long> ids);
+}
@@ -0,0 +1,27 @@
+package com.fiap.atividade3.repository;
+
+import com.fiap.atividade3.model.entity.Usuario;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+
+
+public class UsuarioCacheRepositoryImpl implements UsuarioCacheRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    public <T extends Usuario> List<T> carregarPorIds(Class<T> tipo, Collection<Long> ids) {
+        // Unordered return drops the ids that were not found instead of padding the list with nulls
+        return entityManager.unwrap(Session.class)
+                .byMultipleIds(tipo)
+                .enableOrderedReturn(false)
+                .multiLoad(List.copyOf(ids));
+    }
+}
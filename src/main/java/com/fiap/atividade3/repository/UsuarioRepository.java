@@ -7,29 +7,36 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 
 @Repository
-public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
+public interface UsuarioRepository extends JpaRepository<Usuario, Long>, UsuarioCacheRepository {
 
 
+    @IndiceRequerido(tabela = "usuarios", colunas = {"email"})
     Optional<Usuario> findByEmail(String email);
 
 
+    @IndiceDispensado(motivo = "Includes deactivated users, which the active-only indexes leave out; not on a request path")
     List<Usuario> findByRole(UserRole role);
 
 
+    @IndiceRequerido(tabela = "usuarios", colunas = {"role"}, filtro = "active")
     List<Usuario> findByRoleAndActiveTrue(UserRole role);
 
 
+    @IndiceRequerido(tabela = "usuarios", colunas = {"email"})
     boolean existsByEmail(String email);
 
 
-    List<Usuario> findByActiveTrue();
+    @IndiceRequerido(tabela = "usuarios", colunas = {"email"})
+    @Query("SELECT u.email FROM Usuario u WHERE u.email IN :emails")
+    List<String> findEmailsExistentes(@Param("emails") Collection<String> emails);
 
 
-    @Query("SELECT u FROM Usuario u WHERE LOWER(u.nome) LIKE LOWER(CONCAT('%', :nome, '%')) AND u.active = true")
-    List<Usuario> findByNomeContainingIgnoreCaseAndActiveTrue(@Param("nome") String nome);
+    @IndiceRequerido(tabela = "usuarios", filtro = "active")
+    List<Usuario> findByActiveTrue();
 }
@@ -1,11 +1,13 @@
 package com.fiap.atividade3.security;
 
 import com.fiap.atividade3.service.CustomUserDetailsService;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -25,6 +27,16 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private CustomUserDetailsService userDetailsService;
 
+    @Autowired
+    private TokenVersionRegistry tokenVersionRegistry;
+
+    @Autowired
+    private RevokedTokenRegistry revokedTokenRegistry;
+
+    // "stateless" builds the principal from the token claims; "database" reloads the user on every request
+    @Value("${jwt.auth.mode:stateless}")
+    private String authMode;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, 
                                   HttpServletResponse response, 
@@ -32,28 +44,30 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         
         final String authorizationHeader = request.getHeader("Authorization");
         
-        String username = null;
         String jwt = null;
+        Claims claims = null;
 
-        // Extract JWT token from Authorization header
+        // Extract JWT token from Authorization header and verify it once
         if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
             jwt = authorizationHeader.substring(7);
             try {
-                username = jwtUtil.extractUsername(jwt);
+                claims = jwtUtil.verifyToken(jwt);
             } catch (Exception e) {
-                logger.warn("JWT token extraction failed: " + e.getMessage());
+                logger.warn("JWT token verification failed: " + e.getMessage());
             }
         }
 
         // Validate token and set authentication
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+        if (claims != null && SecurityContextHolder.getContext().getAuthentication() == null
+                && !revokedTokenRegistry.isRevoked(claims.getId())
+                && tokenVersionRegistry.isValid(claims)) {
+            UserDetails userDetails = resolvePrincipal(claims);
             
-            if (jwtUtil.validateToken(jwt, userDetails)) {
+            if (userDetails != null && jwtUtil.validateClaims(claims, userDetails)) {
                 UsernamePasswordAuthenticationToken authToken = 
                     new UsernamePasswordAuthenticationToken(
                         userDetails, 
-                        null, 
+                        jwt, 
                         userDetails.getAuthorities()
                     );
                 authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
@@ -64,6 +78,18 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    private UserDetails resolvePrincipal(Claims claims) {
+        if ("database".equalsIgnoreCase(authMode)) {
+            return userDetailsService.loadUserByUsername(claims.getSubject());
+        }
+        try {
+            return JwtUserPrincipal.fromClaims(claims);
+        } catch (IllegalArgumentException | NullPointerException e) {
+            logger.warn("JWT token without usable principal claims: " + e.getMessage());
+            return null;
+        }
+    }
+
     @Override
     protected boolean shouldNotFilter(HttpServletRequest request) throws ServletException {
         String path = request.getRequestURI();
@@ -0,0 +1,78 @@
+package com.fiap.atividade3.security;
+
+import com.fiap.atividade3.model.enums.UserRole;
+import io.jsonwebtoken.Claims;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+
+
+// Lightweight principal rebuilt from verified JWT claims, without touching the database
+public class JwtUserPrincipal implements UserDetails {
+
+    private final Long id;
+    private final String email;
+    private final String nome;
+    private final UserRole role;
+
+    public JwtUserPrincipal(Long id, String email, String nome, UserRole role) {
+        this.id = id;
+        this.email = email;
+        this.nome = nome;
+        this.role = role;
+    }
+
+    public static JwtUserPrincipal fromClaims(Claims claims) {
+        return new JwtUserPrincipal(
+                claims.get("userId", Long.class),
+                claims.getSubject(),
+                claims.get("nome", String.class),
+                UserRole.valueOf(claims.get("role", String.class))
+        );
+    }
+
+    // Works for both auth modes: claims-built principal or the cached user snapshot; null when anonymous
+    public static JwtUserPrincipal from(Authentication authentication) {
+        if (authentication == null || !authentication.isAuthenticated()) {
+            return null;
+        }
+        if (authentication.getPrincipal() instanceof JwtUserPrincipal principal) {
+            return principal;
+        }
+        if (authentication.getPrincipal() instanceof UserSnapshot usuario) {
+            return new JwtUserPrincipal(usuario.getId(), usuario.getUsername(), usuario.getNome(), usuario.getRole());
+        }
+        return null;
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return List.of(new SimpleGrantedAuthority(role.getAuthority()));
+    }
+
+    @Override
+    public String getPassword() {
+        return null;
+    }
+
+    @Override
+    public String getUsername() {
+        return email;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getNome() {
+        return nome;
+    }
+
+    public UserRole getRole() {
+        return role;
+    }
+}
@@ -1,16 +1,28 @@
 package com.fiap.atividade3.security;
 
-import com.fiap.atividade3.model.entity.Usuario;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HexFormat;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 
@@ -23,8 +35,42 @@ public class JwtUtil {
     @Value("${jwt.expiration:86400000}") // 24 hours in milliseconds
     private Long expiration;
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
+    @Value("${jwt.cache.max-size:10000}")
+    private long cacheMaxSize;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private SecretKey signingKey;
+
+    private JwtParser jwtParser;
+
+    // Verified claims keyed by SHA-256 of the token, each entry expiring together with its token
+    private Cache<String, Claims> verifiedClaims;
+
+    @PostConstruct
+    public void init() {
+        signingKey = Keys.hmacShaKeyFor(secret.getBytes());
+        jwtParser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
+        verifiedClaims = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfter(new ExpireWithToken())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, verifiedClaims, "jwt.claims");
+    }
+
+
+    public Claims verifyToken(String token) {
+        String key = hashToken(token);
+        Claims claims = verifiedClaims.getIfPresent(key);
+        if (claims == null) {
+            claims = jwtParser.parseSignedClaims(token).getPayload();
+            verifiedClaims.put(key, claims);
+        }
+        return claims;
     }
 
 
@@ -49,59 +95,55 @@ public class JwtUtil {
 
 
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
+        final Claims claims = verifyToken(token);
         return claimsResolver.apply(claims);
     }
 
 
-    private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-    }
-
-
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    private Boolean isTokenExpired(Claims claims) {
+        return claims.getExpiration().before(new Date());
     }
 
 
-    public String generateToken(Usuario usuario) {
+    public String generateToken(UserSnapshot usuario) {
         Map<String, Object> claims = new HashMap<>();
         claims.put("userId", usuario.getId());
         claims.put("role", usuario.getRole().name());
         claims.put("nome", usuario.getNome());
-        return createToken(claims, usuario.getEmail());
+        claims.put("ver", usuario.getTokenVersion());
+        return createToken(claims, usuario.getUsername());
     }
 
 
     private String createToken(Map<String, Object> claims, String subject) {
         return Jwts.builder()
+                .id(UUID.randomUUID().toString())
                 .claims(claims)
                 .subject(subject)
                 .issuedAt(new Date(System.currentTimeMillis()))
                 .expiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSigningKey())
+                .signWith(signingKey)
                 .compact();
     }
 
 
     public Boolean validateToken(String token, UserDetails userDetails) {
         try {
-            final String username = extractUsername(token);
-            return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+            return validateClaims(verifyToken(token), userDetails);
         } catch (JwtException | IllegalArgumentException e) {
             return false;
         }
     }
 
 
+    public Boolean validateClaims(Claims claims, UserDetails userDetails) {
+        return claims.getSubject().equals(userDetails.getUsername()) && !isTokenExpired(claims);
+    }
+
+
     public Boolean validateToken(String token) {
         try {
-            extractAllClaims(token);
-            return !isTokenExpired(token);
+            return !isTokenExpired(verifyToken(token));
         } catch (JwtException | IllegalArgumentException e) {
             return false;
         }
@@ -114,4 +156,37 @@ public class JwtUtil {
         }
         return null;
     }
+
+
+    private String hashToken(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+
+    private static class ExpireWithToken implements Expiry<String, Claims> {
+
+        @Override
+        public long expireAfterCreate(String key, Claims claims, long currentTime) {
+            Date exp = claims.getExpiration();
+            if (exp == null) {
+                return 0;
+            }
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, exp.getTime() - System.currentTimeMillis()));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Claims claims, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, claims, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
 }
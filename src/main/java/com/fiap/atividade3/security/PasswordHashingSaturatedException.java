@@ -0,0 +1,9 @@
+package com.fiap.atividade3.security;
+
+
+public class PasswordHashingSaturatedException extends RuntimeException {
+
+    public PasswordHashingSaturatedException() {
+        super("Serviço de autenticação sobrecarregado, tente novamente em instantes");
+    }
+}
@@ -0,0 +1,23 @@
+package com.fiap.atividade3.security;
+
+
+public class RateLimitExceededException extends RuntimeException {
+
+    private final String limit;
+
+    private final long retryAfterMs;
+
+    public RateLimitExceededException(String limit, long retryAfterMs) {
+        super("Limite de requisições excedido, tente novamente em " + retryAfterMs + " ms");
+        this.limit = limit;
+        this.retryAfterMs = retryAfterMs;
+    }
+
+    public String getLimit() {
+        return limit;
+    }
+
+    public long getRetryAfterMs() {
+        return retryAfterMs;
+    }
+}
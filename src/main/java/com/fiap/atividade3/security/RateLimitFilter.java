@@ -0,0 +1,76 @@
+package com.fiap.atividade3.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+
+// Coarse admission control on the GraphQL endpoint, before the request body is parsed
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    @Autowired
+    private RateLimiter rateLimiter;
+
+    @Autowired
+    private RateLimitProperties properties;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                  HttpServletResponse response,
+                                  FilterChain filterChain) throws ServletException, IOException {
+        RateLimitProperties.Limit limit = properties.getHttp();
+        try {
+            rateLimiter.acquire("http", limit, resolveKey(request, limit.getKey()));
+        } catch (RateLimitExceededException e) {
+            long retryAfterSeconds = Math.max(1, (e.getRetryAfterMs() + 999) / 1000);
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader("Retry-After", String.valueOf(retryAfterSeconds));
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.setCharacterEncoding("UTF-8");
+            objectMapper.writeValue(response.getWriter(), Map.of("errors", List.of(Map.of(
+                    "message", e.getMessage(),
+                    "extensions", Map.of(
+                            "classification", "TOO_MANY_REQUESTS",
+                            "limit", e.getLimit(),
+                            "retryAfterMs", e.getRetryAfterMs())))));
+            return;
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    private String resolveKey(HttpServletRequest request, RateLimitProperties.KeyType keyType) {
+        if (keyType == RateLimitProperties.KeyType.USER) {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            if (authentication != null && authentication.isAuthenticated()) {
+                return "user:" + authentication.getName();
+            }
+        }
+        if (keyType == RateLimitProperties.KeyType.OPERATION) {
+            return "global";
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) throws ServletException {
+        return !request.getServletPath().startsWith("/graphql");
+    }
+}
@@ -0,0 +1,120 @@
+package com.fiap.atividade3.security;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.util.HashMap;
+import java.util.Map;
+
+
+// Validated at startup: a zero or tiny refill rate would make the GCRA interval infinite or overflow the arithmetic
+@ConfigurationProperties(prefix = "rate-limit")
+@Validated
+public class RateLimitProperties {
+
+    public enum KeyType {
+        USER, IP, OPERATION
+    }
+
+    private boolean enabled = true;
+
+    // Upper bound on tracked buckets; idle buckets are evicted first
+    @Positive
+    private long maxKeys = 100_000;
+
+    // Coarse per-client limit on the HTTP endpoint, applied in the security filter chain
+    @Valid
+    @NotNull
+    private Limit http = new Limit(200, 100, KeyType.IP);
+
+    // Per root field limits (login, todasConsultas, ...), applied during GraphQL execution
+    private Map<String, @Valid @NotNull Limit> operations = new HashMap<>();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getMaxKeys() {
+        return maxKeys;
+    }
+
+    public void setMaxKeys(long maxKeys) {
+        this.maxKeys = maxKeys;
+    }
+
+    public Limit getHttp() {
+        return http;
+    }
+
+    public void setHttp(Limit http) {
+        this.http = http;
+    }
+
+    public Map<String, Limit> getOperations() {
+        return operations;
+    }
+
+    public void setOperations(Map<String, Limit> operations) {
+        this.operations = operations;
+    }
+
+
+    public static class Limit {
+
+        // Burst size; bounded so interval * capacity stays within a long at the slowest allowed rate
+        @Positive
+        @Max(1_000_000)
+        private int capacity = 10;
+
+        // Sustained rate, at least one token every ~17 minutes and at most one per microsecond
+        @DecimalMin("0.001")
+        @DecimalMax("1000000")
+        private double refillPerSecond = 5;
+
+        @NotNull
+        private KeyType key = KeyType.USER;
+
+        public Limit() {
+        }
+
+        public Limit(int capacity, double refillPerSecond, KeyType key) {
+            this.capacity = capacity;
+            this.refillPerSecond = refillPerSecond;
+            this.key = key;
+        }
+
+        public int getCapacity() {
+            return capacity;
+        }
+
+        public void setCapacity(int capacity) {
+            this.capacity = capacity;
+        }
+
+        public double getRefillPerSecond() {
+            return refillPerSecond;
+        }
+
+        public void setRefillPerSecond(double refillPerSecond) {
+            this.refillPerSecond = refillPerSecond;
+        }
+
+        public KeyType getKey() {
+            return key;
+        }
+
+        public void setKey(KeyType key) {
+            this.key = key;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.fiap.atividade3.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+
+// Token buckets kept as a single "theoretical arrival time" per key (GCRA), updated with CAS
+@Component
+public class RateLimiter {
+
+    @Autowired
+    private RateLimitProperties properties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Cache<String, AtomicLong> buckets;
+
+    private final ConcurrentMap<String, Counter> allowedCounters = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<String, Counter> rejectedCounters = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        buckets = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxKeys())
+                .expireAfterAccess(Duration.ofMinutes(10))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, buckets, "ratelimit.buckets");
+    }
+
+
+    public void acquire(String name, RateLimitProperties.Limit limit, String key) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+
+        long waitNanos = tryAcquire(name + ":" + key, limit);
+        if (waitNanos > 0) {
+            counter(rejectedCounters, name, "rejected").increment();
+            throw new RateLimitExceededException(name, Math.max(1, TimeUnit.NANOSECONDS.toMillis(waitNanos)));
+        }
+        counter(allowedCounters, name, "allowed").increment();
+    }
+
+
+    // Returns 0 when a token was taken, otherwise how long until the next one is available
+    private long tryAcquire(String bucketKey, RateLimitProperties.Limit limit) {
+        long interval = (long) (TimeUnit.SECONDS.toNanos(1) / limit.getRefillPerSecond());
+        long burst = interval * Math.max(1, limit.getCapacity());
+        AtomicLong arrival = buckets.get(bucketKey, key -> new AtomicLong(System.nanoTime()));
+
+        while (true) {
+            long now = System.nanoTime();
+            long current = arrival.get();
+            long next = Math.max(current, now) + interval;
+            long allowedAt = next - burst;
+            if (allowedAt > now) {
+                return allowedAt - now;
+            }
+            if (arrival.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+
+    private Counter counter(ConcurrentMap<String, Counter> counters, String name, String result) {
+        return counters.computeIfAbsent(name, limit -> meterRegistry.counter("ratelimit.requests", "limit", limit, "result", result));
+    }
+}
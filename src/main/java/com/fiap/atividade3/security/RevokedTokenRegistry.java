@@ -0,0 +1,122 @@
+package com.fiap.atividade3.security;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+
+// Revoked token ids (jti). Lookups go through a Bloom filter first, so the common
+// "not revoked" answer costs a few bit reads and no allocation; positives are
+// confirmed against the exact set.
+@Component
+public class RevokedTokenRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(RevokedTokenRegistry.class);
+
+    @Value("${jwt.revocation.expected-tokens:100000}")
+    private int expectedTokens;
+
+    @Value("${jwt.revocation.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // jti -> token expiration (epoch millis)
+    private final ConcurrentMap<String, Long> revoked = new ConcurrentHashMap<>();
+
+    private volatile BloomFilter filter;
+
+    @PostConstruct
+    public void init() {
+        filter = new BloomFilter(expectedTokens, falsePositiveRate);
+        Gauge.builder("jwt.revoked.tokens", revoked, ConcurrentMap::size)
+                .register(meterRegistry);
+    }
+
+    public boolean isRevoked(String tokenId) {
+        if (tokenId == null || !filter.mightContain(tokenId)) {
+            return false;
+        }
+        return revoked.containsKey(tokenId);
+    }
+
+    public synchronized void revoke(String tokenId, long expiresAt) {
+        if (tokenId == null || expiresAt <= System.currentTimeMillis()) {
+            return;
+        }
+        revoked.put(tokenId, expiresAt);
+        filter.put(tokenId);
+    }
+
+    // Bloom filters cannot delete, so expired ids are dropped by rebuilding the filter
+    @Scheduled(fixedDelayString = "${jwt.revocation.rebuild-interval-ms:600000}")
+    public synchronized void rebuild() {
+        long now = System.currentTimeMillis();
+        revoked.values().removeIf(expiresAt -> expiresAt <= now);
+
+        BloomFilter rebuilt = new BloomFilter(Math.max(expectedTokens, revoked.size() * 2), falsePositiveRate);
+        revoked.keySet().forEach(rebuilt::put);
+        filter = rebuilt;
+        logger.debug("Revoked token filter rebuilt with {} active entries", revoked.size());
+    }
+
+
+    static final class BloomFilter {
+
+        private final AtomicLongArray bits;
+        private final long bitCount;
+        private final int hashCount;
+
+        BloomFilter(int expectedInsertions, double falsePositiveRate) {
+            long m = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+            this.bitCount = Math.max(64, m);
+            this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedInsertions * Math.log(2)));
+            this.bits = new AtomicLongArray((int) ((bitCount + 63) / 64));
+        }
+
+        void put(String value) {
+            long hash = hash64(value);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 1; i <= hashCount; i++) {
+                long index = Math.floorMod(h1 + i * h2, bitCount);
+                long mask = 1L << index;
+                bits.accumulateAndGet((int) (index >>> 6), mask, (current, bit) -> current | bit);
+            }
+        }
+
+        boolean mightContain(String value) {
+            long hash = hash64(value);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 1; i <= hashCount; i++) {
+                long index = Math.floorMod(h1 + i * h2, bitCount);
+                if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        // FNV-1a over the UTF-16 chars, no intermediate byte[] needed
+        private static long hash64(String value) {
+            long hash = 0xcbf29ce484222325L;
+            for (int i = 0; i < value.length(); i++) {
+                hash ^= value.charAt(i);
+                hash *= 0x100000001b3L;
+            }
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.fiap.atividade3.security;
+
+import com.fiap.atividade3.service.AsyncMessagingService;
+import com.fiap.atividade3.service.CustomUserDetailsService;
+import com.fiap.atividade3.service.event.UsuarioAlteradoEvent;
+import com.fiap.atividade3.service.event.UsuarioInvalidadoEvent;
+import io.jsonwebtoken.Claims;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+
+// Per-user token version check. Tokens carry the version they were issued with ("ver" claim); the current
+// version is the token_version column, read through the user cache, so revocations survive restarts.
+@Component
+public class TokenVersionRegistry {
+
+    @Autowired
+    private CustomUserDetailsService userDetailsService;
+
+    @Autowired
+    private AsyncMessagingService asyncMessagingService;
+
+    // Valid while the user exists, is active, and the token is not older than the stored version
+    public boolean isValid(Claims claims) {
+        Long userId = claims.get("userId", Long.class);
+        Integer tokenVersion = claims.get("ver", Integer.class);
+        if (userId == null || claims.getSubject() == null) {
+            return false;
+        }
+        int version = tokenVersion != null ? tokenVersion : 0;
+        return userDetailsService.buscar(claims.getSubject())
+                .filter(usuario -> userId.equals(usuario.getId()) && usuario.isActive())
+                .map(usuario -> version >= usuario.getTokenVersion())
+                .orElse(false);
+    }
+
+    // The local cache is evicted by CustomUserDetailsService; the other nodes learn about the change from the broadcast
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUsuarioAlterado(UsuarioAlteradoEvent event) {
+        asyncMessagingService.publishUsuarioInvalidado(new UsuarioInvalidadoEvent(event.getUsuarioId(), event.getEmail()));
+    }
+}
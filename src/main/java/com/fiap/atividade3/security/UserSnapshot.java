@@ -0,0 +1,117 @@
+package com.fiap.atividade3.security;
+
+import com.fiap.atividade3.model.entity.Usuario;
+import com.fiap.atividade3.model.enums.UserRole;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+
+// Immutable copy of the authentication fields of a Usuario. This is what the user cache holds and hands to every
+// thread, instead of a detached, mutable entity
+public final class UserSnapshot implements UserDetails {
+
+    private final Long id;
+    private final String email;
+    private final String nome;
+    private final String senha;
+    private final UserRole role;
+    private final boolean active;
+    private final int tokenVersion;
+    private final LocalDateTime createdAt;
+    private final LocalDateTime updatedAt;
+
+    public UserSnapshot(Long id, String email, String nome, String senha, UserRole role, boolean active, int tokenVersion,
+                        LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this.id = id;
+        this.email = email;
+        this.nome = nome;
+        this.senha = senha;
+        this.role = role;
+        this.active = active;
+        this.tokenVersion = tokenVersion;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
+
+    public static UserSnapshot of(Usuario usuario) {
+        return new UserSnapshot(usuario.getId(), usuario.getEmail(), usuario.getNome(), usuario.getSenha(),
+                usuario.getRole(), Boolean.TRUE.equals(usuario.getActive()),
+                usuario.getTokenVersion() != null ? usuario.getTokenVersion() : 0,
+                usuario.getCreatedAt(), usuario.getUpdatedAt());
+    }
+
+
+    // A new, unmanaged instance per call with the fields of the GraphQL Usuario type; the password is left out
+    public Usuario paraUsuario() {
+        Usuario usuario = new Usuario();
+        usuario.setId(id);
+        usuario.setNome(nome);
+        usuario.setEmail(email);
+        usuario.setRole(role);
+        usuario.setActive(active);
+        usuario.setTokenVersion(tokenVersion);
+        usuario.setCreatedAt(createdAt);
+        usuario.setUpdatedAt(updatedAt);
+        return usuario;
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return List.of(new SimpleGrantedAuthority(role.getAuthority()));
+    }
+
+    @Override
+    public String getPassword() {
+        return senha;
+    }
+
+    @Override
+    public String getUsername() {
+        return email;
+    }
+
+    @Override
+    public boolean isAccountNonExpired() {
+        return active;
+    }
+
+    @Override
+    public boolean isAccountNonLocked() {
+        return active;
+    }
+
+    @Override
+    public boolean isCredentialsNonExpired() {
+        return active;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return active;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getNome() {
+        return nome;
+    }
+
+    public UserRole getRole() {
+        return role;
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+
+    public int getTokenVersion() {
+        return tokenVersion;
+    }
+}
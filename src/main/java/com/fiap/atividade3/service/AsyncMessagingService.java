@@ -2,12 +2,26 @@ package com.fiap.atividade3.service;
 
 import com.fiap.atividade3.config.AsyncConfig;
 import com.fiap.atividade3.model.entity.Consulta;
+import com.fiap.atividade3.model.entity.Usuario;
+import com.fiap.atividade3.security.RevokedTokenRegistry;
+import com.fiap.atividade3.service.event.ConsultaEvento;
+import com.fiap.atividade3.service.event.ConsultaLoteEvento;
+import com.fiap.atividade3.service.event.DiretorioAlteradoEvent;
+import com.fiap.atividade3.service.event.TokenRevogadoEvent;
+import com.fiap.atividade3.service.event.UsuarioInvalidadoEvent;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
 
 
 @Service
@@ -15,41 +29,93 @@ public class AsyncMessagingService {
 
     private static final Logger logger = LoggerFactory.getLogger(AsyncMessagingService.class);
 
+    // Query cache region of the find*ActiveTrue queries
+    private static final String USUARIOS_ATIVOS = "usuarios-ativos";
+
     @Autowired
     private RabbitTemplate rabbitTemplate;
 
+    @Autowired
+    private RevokedTokenRegistry revokedTokenRegistry;
+
+    @Autowired
+    private CustomUserDetailsService userDetailsService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
 
     public void publishConsultaCreated(Consulta consulta) {
-        try {
-            logger.info("Publishing consultation created event for consultation ID: {}", consulta.getId());
-            rabbitTemplate.convertAndSend(
-                AsyncConfig.CONSULTA_EXCHANGE,
-                AsyncConfig.CONSULTA_CREATED_ROUTING_KEY,
-                consulta
-            );
-        } catch (Exception e) {
-            logger.error("Error publishing consultation created event", e);
-        }
+        publishConsultaEvent(AsyncConfig.CONSULTA_CREATED_ROUTING_KEY, consulta);
     }
 
 
     public void publishConsultaUpdated(Consulta consulta) {
-        try {
-            logger.info("Publishing consultation updated event for consultation ID: {}", consulta.getId());
-            rabbitTemplate.convertAndSend(
-                AsyncConfig.CONSULTA_EXCHANGE,
-                AsyncConfig.CONSULTA_UPDATED_ROUTING_KEY,
-                consulta
-            );
-        } catch (Exception e) {
-            logger.error("Error publishing consultation updated event", e);
+        publishConsultaEvent(AsyncConfig.CONSULTA_UPDATED_ROUTING_KEY, consulta);
+    }
+
+
+    public void publishConsultasCreated(List<Consulta> consultas) {
+        publishConsultaBatch(AsyncConfig.CONSULTA_BATCH_CREATED_ROUTING_KEY, consultas);
+    }
+
+
+    public void publishConsultasUpdated(List<Consulta> consultas) {
+        publishConsultaBatch(AsyncConfig.CONSULTA_BATCH_UPDATED_ROUTING_KEY, consultas);
+    }
+
+
+    private void publishConsultaEvent(String routingKey, Consulta consulta) {
+        // Flattened while the entity is still attached, sent only once the transaction commits
+        ConsultaEvento evento = ConsultaEvento.de(consulta);
+        afterCommit(() -> {
+            try {
+                logger.info("Publishing {} event for consultation ID: {}", routingKey, evento.getConsultaId());
+                rabbitTemplate.convertAndSend(AsyncConfig.CONSULTA_EXCHANGE, routingKey, evento);
+            } catch (Exception e) {
+                logger.error("Error publishing {} event", routingKey, e);
+            }
+        });
+    }
+
+
+    private void publishConsultaBatch(String routingKey, List<Consulta> consultas) {
+        if (consultas.isEmpty()) {
+            return;
+        }
+        // One message for the whole batch instead of one per consultation
+        ConsultaLoteEvento lote = ConsultaLoteEvento.de(consultas);
+        afterCommit(() -> {
+            try {
+                logger.info("Publishing {} event for {} consultations", routingKey, lote.getConsultas().size());
+                rabbitTemplate.convertAndSend(AsyncConfig.CONSULTA_EXCHANGE, routingKey, lote);
+            } catch (Exception e) {
+                logger.error("Error publishing {} event", routingKey, e);
+            }
+        });
+    }
+
+
+    private void afterCommit(Runnable publish) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publish.run();
+                }
+            });
+        } else {
+            publish.run();
         }
     }
 
 
     @RabbitListener(queues = AsyncConfig.CONSULTA_CREATED_QUEUE)
-    public void handleConsultaCreated(Consulta consulta) {
-        logger.info("Received consultation created event for consultation ID: {}", consulta.getId());
+    public void handleConsultaCreated(ConsultaEvento consulta) {
+        logger.info("Received consultation created event for consultation ID: {}", consulta.getConsultaId());
         
         // Here you can implement additional business logic such as:
         // - Sending notifications to relevant users
@@ -59,15 +125,15 @@ public class AsyncMessagingService {
         
         // Example: Log the event for audit purposes
         logger.info("Consultation created - Patient: {}, Doctor: {}, Date: {}", 
-                   consulta.getPaciente().getNome(),
-                   consulta.getMedico().getNome(),
+                   consulta.getPacienteNome(),
+                   consulta.getMedicoNome(),
                    consulta.getDataConsulta());
     }
 
 
     @RabbitListener(queues = AsyncConfig.CONSULTA_UPDATED_QUEUE)
-    public void handleConsultaUpdated(Consulta consulta) {
-        logger.info("Received consultation updated event for consultation ID: {}", consulta.getId());
+    public void handleConsultaUpdated(ConsultaEvento consulta) {
+        logger.info("Received consultation updated event for consultation ID: {}", consulta.getConsultaId());
         
         // Here you can implement additional business logic such as:
         // - Sending notifications about updates
@@ -76,7 +142,76 @@ public class AsyncMessagingService {
         
         // Example: Log the event for audit purposes
         logger.info("Consultation updated - ID: {}, Updated by: {}", 
-                   consulta.getId(),
-                   consulta.getMedico().getNome());
+                   consulta.getConsultaId(),
+                   consulta.getMedicoNome());
+    }
+
+
+    public void publishTokenRevoked(TokenRevogadoEvent event) {
+        try {
+            logger.info("Publishing token revoked event for token ID: {}", event.getTokenId());
+            rabbitTemplate.convertAndSend(
+                AsyncConfig.CONSULTA_EXCHANGE,
+                AsyncConfig.TOKEN_REVOKED_ROUTING_KEY,
+                event
+            );
+        } catch (Exception e) {
+            logger.error("Error publishing token revoked event", e);
+        }
+    }
+
+
+    @RabbitListener(queues = "#{tokenRevokedQueue.name}")
+    public void handleTokenRevoked(TokenRevogadoEvent event) {
+        logger.info("Received token revoked event for token ID: {}", event.getTokenId());
+        revokedTokenRegistry.revoke(event.getTokenId(), event.getExpiraEm());
+        // Local listeners, e.g. live subscriptions opened with the token on this node
+        eventPublisher.publishEvent(event);
+    }
+
+
+    public void publishUsuarioInvalidado(UsuarioInvalidadoEvent event) {
+        try {
+            logger.info("Publishing user invalidated event for user ID: {}", event.getUsuarioId());
+            rabbitTemplate.convertAndSend(
+                AsyncConfig.CONSULTA_EXCHANGE,
+                AsyncConfig.USUARIO_INVALIDATED_ROUTING_KEY,
+                event
+            );
+        } catch (Exception e) {
+            logger.error("Error publishing user invalidated event", e);
+        }
+    }
+
+
+    @RabbitListener(queues = "#{usuarioInvalidatedQueue.name}")
+    public void handleUsuarioInvalidado(UsuarioInvalidadoEvent event) {
+        logger.info("Received user invalidated event for user ID: {}", event.getUsuarioId());
+        userDetailsService.invalidar(event.getEmail());
+        // The second-level and query caches only see this node's writes
+        entityManagerFactory.getCache().evict(Usuario.class, event.getUsuarioId());
+        entityManagerFactory.getCache().unwrap(Cache.class).evictQueryRegion(USUARIOS_ATIVOS);
+        eventPublisher.publishEvent(event);
+    }
+
+
+    public void publishDiretorioAlterado(DiretorioAlteradoEvent event) {
+        try {
+            logger.debug("Publishing directory changed event for role: {}", event.getRole());
+            rabbitTemplate.convertAndSend(
+                AsyncConfig.CONSULTA_EXCHANGE,
+                AsyncConfig.DIRETORIO_CHANGED_ROUTING_KEY,
+                event
+            );
+        } catch (Exception e) {
+            logger.error("Error publishing directory changed event", e);
+        }
+    }
+
+
+    @RabbitListener(queues = "#{diretorioChangedQueue.name}")
+    public void handleDiretorioAlterado(DiretorioAlteradoEvent event) {
+        logger.debug("Received directory changed event for role: {}", event.getRole());
+        eventPublisher.publishEvent(event);
     }
 }
@@ -1,13 +1,20 @@
 package com.fiap.atividade3.service;
 
+import com.fiap.atividade3.graphql.type.AuthPayload;
 import com.fiap.atividade3.model.entity.Usuario;
 import com.fiap.atividade3.repository.UsuarioRepository;
 import com.fiap.atividade3.security.JwtUtil;
+import com.fiap.atividade3.security.RevokedTokenRegistry;
+import com.fiap.atividade3.security.UserSnapshot;
+import com.fiap.atividade3.service.event.TokenRevogadoEvent;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
@@ -15,9 +22,6 @@ import org.springframework.stereotype.Service;
 @Service
 public class AuthService {
 
-    @Autowired
-    private AuthenticationManager authenticationManager;
-
     @Autowired
     private UsuarioRepository usuarioRepository;
 
@@ -27,17 +31,75 @@ public class AuthService {
     @Autowired
     private JwtUtil jwtUtil;
 
-    public String login(String email, String senha) {
-        try {
-            Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(email, senha)
-            );
-
-            Usuario usuario = (Usuario) authentication.getPrincipal();
-            return jwtUtil.generateToken(usuario);
-        } catch (AuthenticationException e) {
-            throw new RuntimeException("Credenciais inválidas", e);
+    @Autowired
+    private CustomUserDetailsService userDetailsService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private RevokedTokenRegistry revokedTokenRegistry;
+
+    @Autowired
+    private AsyncMessagingService asyncMessagingService;
+
+    private Timer lookupTimer;
+    private Timer verifyTimer;
+    private Timer signTimer;
+
+    // Compared against when the email is unknown, so both paths cost one BCrypt verification.
+    // Encoded at startup: encoding on the first unknown email would make that login measurably slower
+    private String senhaUsuarioInexistente;
+
+    @PostConstruct
+    public void init() {
+        lookupTimer = loginStageTimer("lookup");
+        verifyTimer = loginStageTimer("verify");
+        signTimer = loginStageTimer("sign");
+        senhaUsuarioInexistente = passwordEncoder.encode("usuario-inexistente");
+    }
+
+    // Authenticates and signs in a single pass, returning the token together with the loaded user
+    public AuthPayload login(String email, String senha) {
+        UserSnapshot usuario = lookupTimer.record(() -> buscarUsuarioAtivo(email));
+
+        if (usuario == null) {
+            verifyTimer.record(() -> passwordEncoder.matches(senha, senhaUsuarioInexistente));
+            throw new RuntimeException("Credenciais inválidas");
+        }
+
+        boolean senhaValida = verifyTimer.record(() -> passwordEncoder.matches(senha, usuario.getPassword()));
+        if (!senhaValida) {
+            throw new RuntimeException("Credenciais inválidas");
+        }
+
+        // Rehash passwords stored with an outdated BCrypt cost
+        if (passwordEncoder.upgradeEncoding(usuario.getPassword())) {
+            userDetailsService.updatePassword(usuario, passwordEncoder.encode(senha));
         }
+
+        String token = signTimer.record(() -> jwtUtil.generateToken(usuario));
+        // Built from the snapshot the lookup already returned, so a cached user logs in without touching the database
+        return new AuthPayload(token, usuario.paraUsuario());
+    }
+
+
+    // Revokes the bearer token of the current request on every node
+    public void logout() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !(authentication.getCredentials() instanceof String token)) {
+            throw new RuntimeException("Usuário não autenticado");
+        }
+
+        Claims claims = jwtUtil.verifyToken(token);
+        if (claims.getId() == null) {
+            throw new RuntimeException("Token não pode ser revogado");
+        }
+
+        long expiraEm = claims.getExpiration().getTime();
+        revokedTokenRegistry.revoke(claims.getId(), expiraEm);
+        asyncMessagingService.publishTokenRevoked(new TokenRevogadoEvent(claims.getId(), expiraEm));
+        SecurityContextHolder.clearContext();
     }
 
 
@@ -60,7 +122,22 @@ public class AuthService {
 
     public Usuario getUserFromToken(String token) {
         String email = jwtUtil.extractUsername(token);
-        return usuarioRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("Usuário não encontrado"));
+        return userDetailsService.findByEmail(email);
+    }
+
+
+    private UserSnapshot buscarUsuarioAtivo(String email) {
+        try {
+            return userDetailsService.loadUserByUsername(email);
+        } catch (UsernameNotFoundException e) {
+            return null;
+        }
+    }
+
+
+    private Timer loginStageTimer(String stage) {
+        return Timer.builder("auth.login.stage")
+                .tag("stage", stage)
+                .register(meterRegistry);
     }
 }
@@ -0,0 +1,50 @@
+package com.fiap.atividade3.service;
+
+import com.fiap.atividade3.model.entity.Consulta;
+import com.fiap.atividade3.repository.ConsultaFetchPlan;
+import com.fiap.atividade3.repository.ConsultaRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.graphql.data.query.ScrollSubrange;
+import org.springframework.stereotype.Service;
+
+
+// Keyset pagination over (dataConsulta, id) for the GraphQL Consulta connections, loading only the planned columns
+@Service
+public class ConsultaPaginacaoService {
+
+    @Autowired
+    private ConsultaRepository consultaRepository;
+
+    @Value("${consulta.paginacao.tamanho-padrao:20}")
+    private int tamanhoPadrao;
+
+    @Value("${consulta.paginacao.tamanho-maximo:100}")
+    private int tamanhoMaximo;
+
+    public Window<Consulta> paginar(Specification<Consulta> specification, ScrollSubrange subrange, ConsultaFetchPlan plano) {
+        if (!subrange.forward()) {
+            throw new RuntimeException("Paginação reversa não suportada, use first/after");
+        }
+
+        KeysetScrollPosition posicao = ScrollPosition.keyset();
+        if (subrange.position().isPresent()) {
+            // Offset cursors would turn into OFFSET scans over the whole history
+            if (!(subrange.position().get() instanceof KeysetScrollPosition keyset)) {
+                throw new RuntimeException("Cursor inválido");
+            }
+            posicao = keyset;
+        }
+
+        int tamanho = subrange.count().orElse(tamanhoPadrao);
+        if (tamanho <= 0) {
+            throw new RuntimeException("O argumento first deve ser maior que zero");
+        }
+
+        return consultaRepository.buscarPaginaProjetada(specification, plano, posicao, Math.min(tamanho, tamanhoMaximo));
+    }
+}
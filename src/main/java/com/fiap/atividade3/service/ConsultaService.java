@@ -2,11 +2,11 @@ package com.fiap.atividade3.service;
 
 import com.fiap.atividade3.model.entity.Consulta;
 import com.fiap.atividade3.model.entity.Usuario;
-import com.fiap.atividade3.model.enums.UserRole;
 import com.fiap.atividade3.repository.ConsultaRepository;
 import com.fiap.atividade3.repository.MedicoRepository;
 import com.fiap.atividade3.repository.PacienteRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -15,11 +15,17 @@ import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
+import static com.fiap.atividade3.repository.ConsultaSpecifications.comId;
+import static com.fiap.atividade3.repository.ConsultaSpecifications.doPaciente;
+import static com.fiap.atividade3.repository.ConsultaSpecifications.visivelPara;
+
 
 @Service
 @Transactional
 public class ConsultaService {
 
+    private static final Sort POR_DATA_DESC = Sort.by(Sort.Direction.DESC, "dataConsulta");
+
     @Autowired
     private ConsultaRepository consultaRepository;
 
@@ -60,30 +66,15 @@ public class ConsultaService {
 
 
     public Consulta buscarConsultaPorId(Long id, Usuario usuario) {
-        Optional<Consulta> consulta = consultaRepository.findById(id);
-        if (consulta.isPresent()) {
-            Consulta c = consulta.get();
-            
-            // Pacientes can only view their own consultations
-            if (usuario.getRole() == UserRole.PACIENTE) {
-                if (!c.getPaciente().getId().equals(usuario.getId())) {
-                    throw new RuntimeException("Acesso negado: você só pode visualizar suas próprias consultas");
-                }
-            }
-            
-            return c;
-        }
-        throw new RuntimeException("Consulta não encontrada");
+        // Pacientes can only view their own consultations: filtered in the query, so another patient's consultation is simply not found
+        return consultaRepository.findOne(comId(id).and(visivelPara(usuario)))
+                .orElseThrow(() -> new RuntimeException("Consulta não encontrada"));
     }
 
 
     public List<Consulta> buscarConsultasPorPaciente(Long pacienteId, Usuario usuario) {
-        // Pacientes can only view their own consultations
-        if (usuario.getRole() == UserRole.PACIENTE && !usuario.getId().equals(pacienteId)) {
-            throw new RuntimeException("Acesso negado: você só pode visualizar suas próprias consultas");
-        }
-        
-        return consultaRepository.findByPacienteIdOrderByDataConsultaDesc(pacienteId);
+        // Pacientes can only view their own consultations: filtered in the query, another patient's id yields an empty list
+        return consultaRepository.findAll(doPaciente(pacienteId).and(visivelPara(usuario)), POR_DATA_DESC);
     }
 
 
@@ -2,34 +2,151 @@ package com.fiap.atividade3.service;
 
 import com.fiap.atividade3.model.entity.Usuario;
 import com.fiap.atividade3.repository.UsuarioRepository;
+import com.fiap.atividade3.security.UserSnapshot;
+import com.fiap.atividade3.service.event.UsuarioAlteradoEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 
 @Service
 public class CustomUserDetailsService implements UserDetailsService {
 
+    private static final String REQUEST_CACHE_ATTRIBUTE = CustomUserDetailsService.class.getName() + ".usuarios";
+
     @Autowired
     private UsuarioRepository usuarioRepository;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${usuario.cache.max-size:5000}")
+    private long cacheMaxSize;
+
+    @Value("${usuario.cache.ttl-seconds:300}")
+    private long cacheTtlSeconds;
+
+    // Level 2: shared across requests, bounded and evicted by TTL. Holds immutable snapshots, never entities
+    private Cache<String, UserSnapshot> usuariosPorEmail;
+
+    private Counter requestCacheHits;
+
+    private Counter requestCacheMisses;
+
+    @PostConstruct
+    public void init() {
+        usuariosPorEmail = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfterWrite(Duration.ofSeconds(cacheTtlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, usuariosPorEmail, "usuarios");
+        requestCacheHits = meterRegistry.counter("usuario.cache.request", "result", "hit");
+        requestCacheMisses = meterRegistry.counter("usuario.cache.request", "result", "miss");
+    }
+
     @Override
-    public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        Usuario usuario = usuarioRepository.findByEmail(email)
+    public UserSnapshot loadUserByUsername(String email) throws UsernameNotFoundException {
+        UserSnapshot usuario = buscarComCache(email)
                 .orElseThrow(() -> new UsernameNotFoundException("Usuário não encontrado com email: " + email));
-        
-        if (!usuario.getActive()) {
+
+        if (!usuario.isActive()) {
             throw new UsernameNotFoundException("Usuário inativo: " + email);
         }
-        
+
         return usuario;
     }
 
 
+    // A fresh entity for callers that need the full user; loaded by id, so it comes from the second-level cache
     public Usuario findByEmail(String email) {
-        return usuarioRepository.findByEmail(email)
+        return buscarComCache(email)
+                .flatMap(usuario -> usuarioRepository.findById(usuario.getId()))
                 .orElseThrow(() -> new UsernameNotFoundException("Usuário não encontrado com email: " + email));
     }
+
+
+    // Cached lookup without the exceptions of loadUserByUsername, for checks on every request
+    public Optional<UserSnapshot> buscar(String email) {
+        return buscarComCache(email);
+    }
+
+
+    // Stores a new hash, used by AuthService to rehash passwords stored with an outdated BCrypt cost
+    public UserSnapshot updatePassword(UserDetails user, String newPassword) {
+        Usuario usuario = usuarioRepository.findByEmail(user.getUsername())
+                .orElseThrow(() -> new UsernameNotFoundException("Usuário não encontrado com email: " + user.getUsername()));
+        usuario.setSenha(newPassword);
+        Usuario atualizado = usuarioRepository.save(usuario);
+        invalidar(atualizado.getEmail());
+        return UserSnapshot.of(atualizado);
+    }
+
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUsuarioAlterado(UsuarioAlteradoEvent event) {
+        invalidar(event.getEmail());
+    }
+
+
+    public void invalidar(String email) {
+        usuariosPorEmail.invalidate(email);
+        Map<String, UserSnapshot> requestCache = requestCache();
+        if (requestCache != null) {
+            requestCache.remove(email);
+        }
+    }
+
+
+    private Optional<UserSnapshot> buscarComCache(String email) {
+        // Level 1: memo for the current HTTP request
+        Map<String, UserSnapshot> requestCache = requestCache();
+        if (requestCache != null) {
+            UserSnapshot usuario = requestCache.get(email);
+            if (usuario != null) {
+                requestCacheHits.increment();
+                return Optional.of(usuario);
+            }
+            requestCacheMisses.increment();
+        }
+
+        UserSnapshot usuario = usuariosPorEmail.get(email, key -> usuarioRepository.findByEmail(key).map(UserSnapshot::of).orElse(null));
+        if (usuario != null && requestCache != null) {
+            requestCache.put(email, usuario);
+        }
+        return Optional.ofNullable(usuario);
+    }
+
+
+    @SuppressWarnings("unchecked")
+    private Map<String, UserSnapshot> requestCache() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return null;
+        }
+        Map<String, UserSnapshot> cache = (Map<String, UserSnapshot>) attributes.getAttribute(REQUEST_CACHE_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (cache == null) {
+            // Concurrent root resolvers share the request attributes; at worst two of them each create a memo
+            cache = new ConcurrentHashMap<>();
+            attributes.setAttribute(REQUEST_CACHE_ATTRIBUTE, cache, RequestAttributes.SCOPE_REQUEST);
+        }
+        return cache;
+    }
 }
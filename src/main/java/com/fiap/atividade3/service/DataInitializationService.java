@@ -1,5 +1,6 @@
 package com.fiap.atividade3.service;
 
+import com.fiap.atividade3.diretorio.service.DiretorioProjecaoService;
 import com.fiap.atividade3.model.entity.Consulta;
 import com.fiap.atividade3.model.entity.Enfermeiro;
 import com.fiap.atividade3.model.entity.Medico;
@@ -39,11 +40,16 @@ public class DataInitializationService implements CommandLineRunner {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private DiretorioProjecaoService diretorioProjecaoService;
+
     @Override
     public void run(String... args) throws Exception {
         if (medicoRepository.count() == 0) {
             logger.info("Initializing database with sample data...");
             initializeData();
+            // Sample users are saved straight through the repositories, without registration events
+            diretorioProjecaoService.reconstruir();
             logger.info("Database initialization completed.");
         } else {
             logger.info("Database already contains data. Skipping initialization.");
@@ -3,20 +3,36 @@ package com.fiap.atividade3.service;
 import com.fiap.atividade3.graphql.input.MedicoInput;
 import com.fiap.atividade3.graphql.input.EnfermeiroInput;
 import com.fiap.atividade3.graphql.input.PacienteInput;
+import com.fiap.atividade3.graphql.type.PacienteLoteResultado;
 import com.fiap.atividade3.model.entity.Medico;
 import com.fiap.atividade3.model.entity.Enfermeiro;
 import com.fiap.atividade3.model.entity.Paciente;
+import com.fiap.atividade3.model.entity.Usuario;
 import com.fiap.atividade3.model.enums.UserRole;
 import com.fiap.atividade3.repository.MedicoRepository;
 import com.fiap.atividade3.repository.EnfermeiroRepository;
 import com.fiap.atividade3.repository.PacienteRepository;
 import com.fiap.atividade3.repository.UsuarioRepository;
+import com.fiap.atividade3.service.event.UsuarioAlteradoEvent;
+import com.fiap.atividade3.service.event.UsuariosRegistradosEvent;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
 
 
 @Service
@@ -38,6 +54,18 @@ public class UserRegistrationService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${usuario.lote.tamanho-maximo:100}")
+    private int tamanhoMaximoLote;
+
 
     public Medico registrarMedico(MedicoInput input) {
         // Check if email already exists
@@ -60,7 +88,9 @@ public class UserRegistrationService {
         medico.setCreatedAt(LocalDateTime.now());
         medico.setActive(true);
 
-        return medicoRepository.save(medico);
+        Medico salvo = medicoRepository.save(medico);
+        publicarAlteracao(salvo);
+        return salvo;
     }
 
 
@@ -85,7 +115,9 @@ public class UserRegistrationService {
         enfermeiro.setCreatedAt(LocalDateTime.now());
         enfermeiro.setActive(true);
 
-        return enfermeiroRepository.save(enfermeiro);
+        Enfermeiro salvo = enfermeiroRepository.save(enfermeiro);
+        publicarAlteracao(salvo);
+        return salvo;
     }
 
 
@@ -100,10 +132,86 @@ public class UserRegistrationService {
             throw new RuntimeException("CPF já está em uso");
         }
 
+        Paciente salvo = pacienteRepository.save(novoPaciente(input, passwordEncoder.encode(input.getSenha())));
+        publicarAlteracao(salvo);
+        return salvo;
+    }
+
+
+    // Invalid or duplicate items are reported per index; the valid ones are inserted together in JDBC batches.
+    // The passwords are hashed before any transaction opens: one BCrypt encode after another through the hashing
+    // bulkhead takes seconds, and no connection should sit idle in the pool for all of it
+    @PreAuthorize("hasRole('MEDICO') or hasRole('ENFERMEIRO')")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<PacienteLoteResultado> registrarPacientesEmLote(List<PacienteInput> inputs) {
+        if (inputs.size() > tamanhoMaximoLote) {
+            throw new RuntimeException("Lote excede o tamanho máximo de " + tamanhoMaximoLote + " itens");
+        }
+
+        // One query per unique column; the sets then also catch repeats inside the batch
+        Set<String> emails = new HashSet<>(usuarioRepository.findEmailsExistentes(
+                inputs.stream().map(PacienteInput::getEmail).filter(Objects::nonNull).toList()));
+        Set<String> cpfs = new HashSet<>(pacienteRepository.findCpfsExistentes(
+                inputs.stream().map(PacienteInput::getCpf).filter(Objects::nonNull).toList()));
+
+        List<PacienteLoteResultado> resultados = new ArrayList<>(inputs.size());
+        List<Paciente> novos = new ArrayList<>();
+        for (int i = 0; i < inputs.size(); i++) {
+            PacienteInput input = inputs.get(i);
+            Set<ConstraintViolation<PacienteInput>> violacoes = validator.validate(input);
+
+            String erro = null;
+            if (!violacoes.isEmpty()) {
+                erro = violacoes.iterator().next().getMessage();
+            } else if (emails.contains(input.getEmail())) {
+                erro = "Email já está em uso";
+            } else if (cpfs.contains(input.getCpf())) {
+                erro = "CPF já está em uso";
+            }
+
+            if (erro != null) {
+                resultados.add(PacienteLoteResultado.falha(i, erro));
+            } else {
+                emails.add(input.getEmail());
+                cpfs.add(input.getCpf());
+                Paciente paciente = novoPaciente(input, passwordEncoder.encode(input.getSenha()));
+                novos.add(paciente);
+                resultados.add(PacienteLoteResultado.sucesso(i, paciente));
+            }
+        }
+
+        if (novos.isEmpty()) {
+            return resultados;
+        }
+
+        // Only the inserts run in a transaction. Flushed here so the directory projection, which copies the rows
+        // with SQL before the commit, sees them; a row taken by another registration since the checks above still
+        // fails on the unique constraints
+        transactionTemplate.executeWithoutResult(status -> {
+            pacienteRepository.saveAllAndFlush(novos);
+            eventPublisher.publishEvent(new UsuariosRegistradosEvent(
+                    UserRole.PACIENTE, novos.stream().map(Paciente::getId).toList()));
+        });
+        return resultados;
+    }
+
+
+    @PreAuthorize("hasRole('MEDICO')")
+    public void desativarUsuario(Long id) {
+        Usuario usuario = usuarioRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Usuário não encontrado"));
+        usuario.setActive(false);
+        usuario.setTokenVersion(usuario.getTokenVersion() + 1);
+        usuarioRepository.save(usuario);
+        publicarAlteracao(usuario);
+    }
+
+
+    private Paciente novoPaciente(PacienteInput input, String senhaCodificada) {
         Paciente paciente = new Paciente();
         paciente.setNome(input.getNome());
         paciente.setEmail(input.getEmail());
-        paciente.setSenha(passwordEncoder.encode(input.getSenha()));
+        paciente.setSenha(senhaCodificada);
         paciente.setRole(UserRole.PACIENTE);
         paciente.setCpf(input.getCpf());
         paciente.setDataNascimento(input.getDataNascimento());
@@ -111,7 +219,12 @@ public class UserRegistrationService {
         paciente.setEndereco(input.getEndereco());
         paciente.setCreatedAt(LocalDateTime.now());
         paciente.setActive(true);
+        return paciente;
+    }
+
 
-        return pacienteRepository.save(paciente);
+    private void publicarAlteracao(Usuario usuario) {
+        eventPublisher.publishEvent(new UsuarioAlteradoEvent(
+                usuario.getId(), usuario.getEmail(), usuario.getRole(), usuario.getActive()));
     }
 }
@@ -0,0 +1,150 @@
+package com.fiap.atividade3.service.event;
+
+import com.fiap.atividade3.model.entity.Consulta;
+
+import java.time.LocalDateTime;
+
+
+// Flat payload of the consulta.created/consulta.updated messages; entities are never serialized to the broker
+public class ConsultaEvento {
+
+    private Long consultaId;
+    private LocalDateTime dataConsulta;
+    private String motivo;
+    private String diagnostico;
+    private String prescricao;
+    private Long pacienteId;
+    private String pacienteNome;
+    private String pacienteEmail;
+    private String pacienteTelefone;
+    private Long medicoId;
+    private String medicoNome;
+    private Long enfermeiroId;
+    private String setor;
+
+    public ConsultaEvento() {}
+
+    public static ConsultaEvento de(Consulta consulta) {
+        ConsultaEvento evento = new ConsultaEvento();
+        evento.consultaId = consulta.getId();
+        evento.dataConsulta = consulta.getDataConsulta();
+        evento.motivo = consulta.getMotivo();
+        evento.diagnostico = consulta.getDiagnostico();
+        evento.prescricao = consulta.getPrescricao();
+        evento.pacienteId = consulta.getPaciente().getId();
+        evento.pacienteNome = consulta.getPaciente().getNome();
+        evento.pacienteEmail = consulta.getPaciente().getEmail();
+        evento.pacienteTelefone = consulta.getPaciente().getTelefone();
+        evento.medicoId = consulta.getMedico().getId();
+        evento.medicoNome = consulta.getMedico().getNome();
+        if (consulta.getEnfermeiro() != null) {
+            evento.enfermeiroId = consulta.getEnfermeiro().getId();
+            evento.setor = consulta.getEnfermeiro().getSetor();
+        }
+        return evento;
+    }
+
+    public Long getConsultaId() {
+        return consultaId;
+    }
+
+    public void setConsultaId(Long consultaId) {
+        this.consultaId = consultaId;
+    }
+
+    public LocalDateTime getDataConsulta() {
+        return dataConsulta;
+    }
+
+    public void setDataConsulta(LocalDateTime dataConsulta) {
+        this.dataConsulta = dataConsulta;
+    }
+
+    public String getMotivo() {
+        return motivo;
+    }
+
+    public void setMotivo(String motivo) {
+        this.motivo = motivo;
+    }
+
+    public String getDiagnostico() {
+        return diagnostico;
+    }
+
+    public void setDiagnostico(String diagnostico) {
+        this.diagnostico = diagnostico;
+    }
+
+    public String getPrescricao() {
+        return prescricao;
+    }
+
+    public void setPrescricao(String prescricao) {
+        this.prescricao = prescricao;
+    }
+
+    public Long getPacienteId() {
+        return pacienteId;
+    }
+
+    public void setPacienteId(Long pacienteId) {
+        this.pacienteId = pacienteId;
+    }
+
+    public String getPacienteNome() {
+        return pacienteNome;
+    }
+
+    public void setPacienteNome(String pacienteNome) {
+        this.pacienteNome = pacienteNome;
+    }
+
+    public String getPacienteEmail() {
+        return pacienteEmail;
+    }
+
+    public void setPacienteEmail(String pacienteEmail) {
+        this.pacienteEmail = pacienteEmail;
+    }
+
+    public String getPacienteTelefone() {
+        return pacienteTelefone;
+    }
+
+    public void setPacienteTelefone(String pacienteTelefone) {
+        this.pacienteTelefone = pacienteTelefone;
+    }
+
+    public Long getMedicoId() {
+        return medicoId;
+    }
+
+    public void setMedicoId(Long medicoId) {
+        this.medicoId = medicoId;
+    }
+
+    public String getMedicoNome() {
+        return medicoNome;
+    }
+
+    public void setMedicoNome(String medicoNome) {
+        this.medicoNome = medicoNome;
+    }
+
+    public Long getEnfermeiroId() {
+        return enfermeiroId;
+    }
+
+    public void setEnfermeiroId(Long enfermeiroId) {
+        this.enfermeiroId = enfermeiroId;
+    }
+
+    public String getSetor() {
+        return setor;
+    }
+
+    public void setSetor(String setor) {
+        this.setor = setor;
+    }
+}
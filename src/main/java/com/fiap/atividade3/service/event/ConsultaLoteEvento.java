@@ -0,0 +1,31 @@
+package com.fiap.atividade3.service.event;
+
+import com.fiap.atividade3.model.entity.Consulta;
+
+import java.util.ArrayList;
+import java.util.List;
+
+
+// Payload of the consulta.lote.* messages: every consultation written by one bulk mutation
+public class ConsultaLoteEvento {
+
+    private List<ConsultaEvento> consultas = new ArrayList<>();
+
+    public ConsultaLoteEvento() {}
+
+    public static ConsultaLoteEvento de(List<Consulta> consultas) {
+        ConsultaLoteEvento lote = new ConsultaLoteEvento();
+        for (Consulta consulta : consultas) {
+            lote.consultas.add(ConsultaEvento.de(consulta));
+        }
+        return lote;
+    }
+
+    public List<ConsultaEvento> getConsultas() {
+        return consultas;
+    }
+
+    public void setConsultas(List<ConsultaEvento> consultas) {
+        this.consultas = consultas;
+    }
+}
@@ -0,0 +1,25 @@
+package com.fiap.atividade3.service.event;
+
+import com.fiap.atividade3.model.enums.UserRole;
+
+
+// Broadcast to every node when a role's directory changes, so each node moves to a new directory version and
+// conditional requests stop matching the old ETag
+public class DiretorioAlteradoEvent {
+
+    private UserRole role;
+
+    public DiretorioAlteradoEvent() {}
+
+    public DiretorioAlteradoEvent(UserRole role) {
+        this.role = role;
+    }
+
+    public UserRole getRole() {
+        return role;
+    }
+
+    public void setRole(UserRole role) {
+        this.role = role;
+    }
+}
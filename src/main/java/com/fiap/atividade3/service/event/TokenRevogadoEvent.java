@@ -0,0 +1,32 @@
+package com.fiap.atividade3.service.event;
+
+
+// Broadcast to every node through consulta.exchange when a token is revoked
+public class TokenRevogadoEvent {
+
+    private String tokenId;
+    private long expiraEm;
+
+    public TokenRevogadoEvent() {}
+
+    public TokenRevogadoEvent(String tokenId, long expiraEm) {
+        this.tokenId = tokenId;
+        this.expiraEm = expiraEm;
+    }
+
+    public String getTokenId() {
+        return tokenId;
+    }
+
+    public void setTokenId(String tokenId) {
+        this.tokenId = tokenId;
+    }
+
+    public long getExpiraEm() {
+        return expiraEm;
+    }
+
+    public void setExpiraEm(long expiraEm) {
+        this.expiraEm = expiraEm;
+    }
+}
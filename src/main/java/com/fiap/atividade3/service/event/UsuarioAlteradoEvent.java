@@ -0,0 +1,35 @@
+package com.fiap.atividade3.service.event;
+
+import com.fiap.atividade3.model.enums.UserRole;
+
+
+public class UsuarioAlteradoEvent {
+
+    private final Long usuarioId;
+    private final String email;
+    private final UserRole role;
+    private final boolean ativo;
+
+    public UsuarioAlteradoEvent(Long usuarioId, String email, UserRole role, boolean ativo) {
+        this.usuarioId = usuarioId;
+        this.email = email;
+        this.role = role;
+        this.ativo = ativo;
+    }
+
+    public Long getUsuarioId() {
+        return usuarioId;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public UserRole getRole() {
+        return role;
+    }
+
+    public boolean isAtivo() {
+        return ativo;
+    }
+}
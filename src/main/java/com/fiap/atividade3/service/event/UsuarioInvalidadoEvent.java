@@ -0,0 +1,33 @@
+package com.fiap.atividade3.service.event;
+
+
+// Broadcast to every node through consulta.exchange when a user changes, so each node drops its cached copy
+// and sees the new token version and active flag without waiting for the cache TTL
+public class UsuarioInvalidadoEvent {
+
+    private Long usuarioId;
+    private String email;
+
+    public UsuarioInvalidadoEvent() {}
+
+    public UsuarioInvalidadoEvent(Long usuarioId, String email) {
+        this.usuarioId = usuarioId;
+        this.email = email;
+    }
+
+    public Long getUsuarioId() {
+        return usuarioId;
+    }
+
+    public void setUsuarioId(Long usuarioId) {
+        this.usuarioId = usuarioId;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+}
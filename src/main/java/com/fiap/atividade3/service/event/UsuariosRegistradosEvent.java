@@ -0,0 +1,26 @@
+package com.fiap.atividade3.service.event;
+
+import com.fiap.atividade3.model.enums.UserRole;
+
+import java.util.List;
+
+
+// Published once per bulk registration instead of one UsuarioAlteradoEvent per user
+public class UsuariosRegistradosEvent {
+
+    private final UserRole role;
+    private final List<Long> usuarioIds;
+
+    public UsuariosRegistradosEvent(UserRole role, List<Long> usuarioIds) {
+        this.role = role;
+        this.usuarioIds = List.copyOf(usuarioIds);
+    }
+
+    public UserRole getRole() {
+        return role;
+    }
+
+    public List<Long> getUsuarioIds() {
+        return usuarioIds;
+    }
+}
@@ -0,0 +1,37 @@
+package db.migration.common;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+
+// Sequences for the pooled id generators of Usuario and Consulta. Written in Java because the start value
+// depends on the ids already issued by the identity columns, and H2 and PostgreSQL only take a literal there.
+public class V5__sequencias_ids extends BaseJavaMigration {
+
+    // Must match allocationSize on the entities; Hibernate validates the sequence increment at startup
+    private static final int ALOCACAO = 50;
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        criarSequencia(context, "usuarios_seq", "usuarios");
+        criarSequencia(context, "consultas_seq", "consultas");
+    }
+
+    // The pooled optimizer treats each value as the top of a block of ALOCACAO ids, so the first value
+    // handed out must be at least max(id) + ALOCACAO for the first block to start after existing rows
+    private void criarSequencia(Context context, String sequencia, String tabela) throws SQLException {
+        try (Statement statement = context.getConnection().createStatement()) {
+            long maximo;
+            try (ResultSet rs = statement.executeQuery("SELECT COALESCE(MAX(id), 0) FROM " + tabela)) {
+                rs.next();
+                maximo = rs.getLong(1);
+            }
+            statement.execute("CREATE SEQUENCE " + sequencia
+                    + " START WITH " + (maximo + ALOCACAO) + " INCREMENT BY " + ALOCACAO);
+        }
+    }
+}
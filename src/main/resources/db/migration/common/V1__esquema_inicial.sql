@@ -0,0 +1,57 @@
+-- Baseline of the schema previously generated by Hibernate (ddl-auto: create-drop)
+
+CREATE TABLE usuarios (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    nome        VARCHAR(100) NOT NULL,
+    email       VARCHAR(255) NOT NULL,
+    senha       VARCHAR(255) NOT NULL,
+    role        VARCHAR(20)  NOT NULL,
+    created_at  TIMESTAMP(6) NOT NULL,
+    updated_at  TIMESTAMP(6),
+    active      BOOLEAN      NOT NULL,
+    CONSTRAINT uk_usuarios_email UNIQUE (email),
+    CONSTRAINT ck_usuarios_role CHECK (role IN ('MEDICO', 'ENFERMEIRO', 'PACIENTE'))
+);
+
+CREATE TABLE medicos (
+    usuario_id     BIGINT       NOT NULL PRIMARY KEY,
+    crm            VARCHAR(20)  NOT NULL,
+    especialidade  VARCHAR(100) NOT NULL,
+    CONSTRAINT uk_medicos_crm UNIQUE (crm),
+    CONSTRAINT fk_medicos_usuario FOREIGN KEY (usuario_id) REFERENCES usuarios (id)
+);
+
+CREATE TABLE enfermeiros (
+    usuario_id  BIGINT       NOT NULL PRIMARY KEY,
+    coren       VARCHAR(20)  NOT NULL,
+    setor       VARCHAR(100),
+    CONSTRAINT uk_enfermeiros_coren UNIQUE (coren),
+    CONSTRAINT fk_enfermeiros_usuario FOREIGN KEY (usuario_id) REFERENCES usuarios (id)
+);
+
+CREATE TABLE pacientes (
+    usuario_id       BIGINT       NOT NULL PRIMARY KEY,
+    cpf              VARCHAR(14)  NOT NULL,
+    data_nascimento  DATE,
+    telefone         VARCHAR(15),
+    endereco         VARCHAR(200),
+    CONSTRAINT uk_pacientes_cpf UNIQUE (cpf),
+    CONSTRAINT fk_pacientes_usuario FOREIGN KEY (usuario_id) REFERENCES usuarios (id)
+);
+
+CREATE TABLE consultas (
+    id             BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    data_consulta  TIMESTAMP(6)  NOT NULL,
+    motivo         VARCHAR(500)  NOT NULL,
+    diagnostico    VARCHAR(2000),
+    prescricao     VARCHAR(1000),
+    observacoes    VARCHAR(1000),
+    paciente_id    BIGINT        NOT NULL,
+    medico_id      BIGINT        NOT NULL,
+    enfermeiro_id  BIGINT,
+    created_at     TIMESTAMP(6)  NOT NULL,
+    updated_at     TIMESTAMP(6),
+    CONSTRAINT fk_consultas_paciente FOREIGN KEY (paciente_id) REFERENCES pacientes (usuario_id),
+    CONSTRAINT fk_consultas_medico FOREIGN KEY (medico_id) REFERENCES medicos (usuario_id),
+    CONSTRAINT fk_consultas_enfermeiro FOREIGN KEY (enfermeiro_id) REFERENCES enfermeiros (usuario_id)
+);
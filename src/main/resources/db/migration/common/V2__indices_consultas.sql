@@ -0,0 +1,13 @@
+-- Every consultas list filters on one owner column and orders by (data_consulta, id) for keyset pagination;
+-- with the owner first and the sort key after it, the database reads rows already in order and stops at the page size
+
+CREATE INDEX idx_consultas_paciente_data ON consultas (paciente_id, data_consulta, id);
+CREATE INDEX idx_consultas_medico_data ON consultas (medico_id, data_consulta, id);
+CREATE INDEX idx_consultas_enfermeiro_data ON consultas (enfermeiro_id, data_consulta, id);
+
+-- Unfiltered lists, period and recent queries
+CREATE INDEX idx_consultas_data ON consultas (data_consulta, id);
+
+-- Directory filters
+CREATE INDEX idx_medicos_especialidade ON medicos (especialidade);
+CREATE INDEX idx_enfermeiros_setor ON enfermeiros (setor);
@@ -0,0 +1,59 @@
+-- Flat directory read model: one table per role holding only active users, so directory reads and
+-- name searches no longer join usuarios with the subtype table. Kept in sync by DiretorioProjecaoService.
+
+CREATE TABLE diretorio_medicos (
+    usuario_id     BIGINT       NOT NULL PRIMARY KEY,
+    nome           VARCHAR(100) NOT NULL,
+    nome_busca     VARCHAR(100) NOT NULL,
+    email          VARCHAR(255) NOT NULL,
+    crm            VARCHAR(20)  NOT NULL,
+    especialidade  VARCHAR(100) NOT NULL,
+    created_at     TIMESTAMP(6) NOT NULL,
+    updated_at     TIMESTAMP(6),
+    CONSTRAINT fk_diretorio_medicos_usuario FOREIGN KEY (usuario_id) REFERENCES medicos (usuario_id)
+);
+
+CREATE TABLE diretorio_enfermeiros (
+    usuario_id  BIGINT       NOT NULL PRIMARY KEY,
+    nome        VARCHAR(100) NOT NULL,
+    nome_busca  VARCHAR(100) NOT NULL,
+    email       VARCHAR(255) NOT NULL,
+    coren       VARCHAR(20)  NOT NULL,
+    setor       VARCHAR(100),
+    created_at  TIMESTAMP(6) NOT NULL,
+    updated_at  TIMESTAMP(6),
+    CONSTRAINT fk_diretorio_enfermeiros_usuario FOREIGN KEY (usuario_id) REFERENCES enfermeiros (usuario_id)
+);
+
+CREATE TABLE diretorio_pacientes (
+    usuario_id       BIGINT       NOT NULL PRIMARY KEY,
+    nome             VARCHAR(100) NOT NULL,
+    nome_busca       VARCHAR(100) NOT NULL,
+    email            VARCHAR(255) NOT NULL,
+    cpf              VARCHAR(14)  NOT NULL,
+    data_nascimento  DATE,
+    telefone         VARCHAR(15),
+    endereco         VARCHAR(200),
+    created_at       TIMESTAMP(6) NOT NULL,
+    updated_at       TIMESTAMP(6),
+    CONSTRAINT fk_diretorio_pacientes_usuario FOREIGN KEY (usuario_id) REFERENCES pacientes (usuario_id)
+);
+
+CREATE INDEX idx_diretorio_medicos_especialidade ON diretorio_medicos (especialidade);
+CREATE INDEX idx_diretorio_enfermeiros_setor ON diretorio_enfermeiros (setor);
+
+-- Backfill from users registered before this migration
+INSERT INTO diretorio_medicos (usuario_id, nome, nome_busca, email, crm, especialidade, created_at, updated_at)
+SELECT u.id, u.nome, LOWER(u.nome), u.email, m.crm, m.especialidade, u.created_at, u.updated_at
+FROM usuarios u JOIN medicos m ON m.usuario_id = u.id
+WHERE u.active = TRUE;
+
+INSERT INTO diretorio_enfermeiros (usuario_id, nome, nome_busca, email, coren, setor, created_at, updated_at)
+SELECT u.id, u.nome, LOWER(u.nome), u.email, e.coren, e.setor, u.created_at, u.updated_at
+FROM usuarios u JOIN enfermeiros e ON e.usuario_id = u.id
+WHERE u.active = TRUE;
+
+INSERT INTO diretorio_pacientes (usuario_id, nome, nome_busca, email, cpf, data_nascimento, telefone, endereco, created_at, updated_at)
+SELECT u.id, u.nome, LOWER(u.nome), u.email, p.cpf, p.data_nascimento, p.telefone, p.endereco, u.created_at, u.updated_at
+FROM usuarios u JOIN pacientes p ON p.usuario_id = u.id
+WHERE u.active = TRUE;
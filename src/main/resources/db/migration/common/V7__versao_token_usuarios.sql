@@ -0,0 +1,6 @@
+-- Token version per user, persisted so a revocation survives restarts and is seen by every node.
+-- Tokens carry the version they were issued with; bumping the column invalidates all earlier tokens.
+ALTER TABLE usuarios ADD COLUMN token_version INTEGER DEFAULT 0 NOT NULL;
+
+-- Only served the startup load of inactive ids, which the persisted version replaces
+DROP INDEX IF EXISTS idx_usuarios_inativos;
@@ -0,0 +1,2 @@
+-- H2 has no partial indexes; active is a leading column instead
+CREATE INDEX idx_usuarios_ativos_role ON usuarios (active, role, id);
@@ -0,0 +1,5 @@
+-- Directory reads only look at active users: partial indexes leave deactivated accounts out of the index entirely
+CREATE INDEX idx_usuarios_ativos_role ON usuarios (role, id) WHERE active = true;
+
+-- Startup load of inactive ids for token revocation
+CREATE INDEX idx_usuarios_inativos ON usuarios (id) WHERE active = false;
@@ -0,0 +1,16 @@
+-- Accent-insensitive, typo-tolerant name search: trigram GIN indexes over the unaccented directory names.
+-- H2 has neither extension; there the application keeps an equivalent trigram index in memory.
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE EXTENSION IF NOT EXISTS unaccent;
+
+-- unaccent() is only STABLE (its dictionary can change), so it cannot appear in an index expression.
+-- Pinning the dictionary makes this wrapper safe to declare IMMUTABLE.
+CREATE OR REPLACE FUNCTION f_unaccent(texto text) RETURNS text
+    LANGUAGE sql IMMUTABLE PARALLEL SAFE STRICT
+AS $$ SELECT public.unaccent('public.unaccent'::regdictionary, texto) $$;
+
+-- nome_busca is already lower-cased; gin_trgm_ops serves the word similarity operator <%
+CREATE INDEX idx_diretorio_medicos_nome_trgm ON diretorio_medicos USING gin (f_unaccent(nome_busca) gin_trgm_ops);
+CREATE INDEX idx_diretorio_enfermeiros_nome_trgm ON diretorio_enfermeiros USING gin (f_unaccent(nome_busca) gin_trgm_ops);
+CREATE INDEX idx_diretorio_pacientes_nome_trgm ON diretorio_pacientes USING gin (f_unaccent(nome_busca) gin_trgm_ops);
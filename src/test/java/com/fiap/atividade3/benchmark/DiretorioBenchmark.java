@@ -0,0 +1,175 @@
+package com.fiap.atividade3.benchmark;
+
+import com.fiap.atividade3.diretorio.service.DiretorioProjecaoService;
+import com.fiap.atividade3.model.entity.Usuario;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.flywaydb.core.Flyway;
+import org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.orm.jpa.hibernate.SpringImplicitNamingStrategy;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Directory reads over the joined user hierarchy (the SQL Hibernate emits for the JOINED entities) against
+// the flat directory tables, on an H2 database migrated by Flyway and filled with generated users.
+// Run with: mvn test-compile exec:java -Dexec.mainClass=com.fiap.atividade3.benchmark.DiretorioBenchmark -Dexec.classpathScope=test
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+@Threads(1)
+public class DiretorioBenchmark {
+
+    private static final String MEDICOS_POR_ESPECIALIDADE_JOIN =
+            "SELECT m.usuario_id, u.active, u.created_at, u.email, u.nome, u.role, u.senha, u.updated_at, m.crm, m.especialidade "
+            + "FROM medicos m JOIN usuarios u ON m.usuario_id = u.id WHERE m.especialidade = ? AND u.active = TRUE";
+
+    private static final String MEDICOS_POR_ESPECIALIDADE_PLANO =
+            "SELECT usuario_id, nome, nome_busca, email, crm, especialidade, created_at, updated_at "
+            + "FROM diretorio_medicos WHERE especialidade = ?";
+
+    private static final String PACIENTES_POR_NOME_JOIN =
+            "SELECT p.usuario_id, u.active, u.created_at, u.email, u.nome, u.role, u.senha, u.updated_at, "
+            + "p.cpf, p.data_nascimento, p.endereco, p.telefone "
+            + "FROM pacientes p JOIN usuarios u ON p.usuario_id = u.id "
+            + "WHERE LOWER(u.nome) LIKE LOWER('%' || ? || '%') AND u.active = TRUE";
+
+    private static final String PACIENTES_POR_NOME_PLANO =
+            "SELECT usuario_id, nome, nome_busca, email, cpf, data_nascimento, telefone, endereco, created_at, updated_at "
+            + "FROM diretorio_pacientes WHERE nome_busca LIKE '%' || ? || '%'";
+
+    private static final String ENFERMEIROS_JOIN =
+            "SELECT e.usuario_id, u.active, u.created_at, u.email, u.nome, u.role, u.senha, u.updated_at, e.coren, e.setor "
+            + "FROM enfermeiros e JOIN usuarios u ON e.usuario_id = u.id WHERE u.active = TRUE";
+
+    private static final String ENFERMEIROS_PLANO =
+            "SELECT usuario_id, nome, nome_busca, email, coren, setor, created_at, updated_at FROM diretorio_enfermeiros";
+
+    // One doctor and one nurse in every ten users, the rest patients; one user in 53 deactivated
+    @Param({"1000000"})
+    private int usuarios;
+
+    private SingleConnectionDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+
+    @Setup
+    public void setup() {
+        dataSource = new SingleConnectionDataSource("jdbc:h2:mem:diretorio_benchmark;DB_CLOSE_DELAY=-1", "sa", "", true);
+        Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration/common", "classpath:db/migration/h2")
+                .load()
+                .migrate();
+
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.update("INSERT INTO usuarios (id, nome, email, senha, role, created_at, active) "
+                + "SELECT X, 'Nome ' || X, 'usuario' || X || '@hospital.com', 'senha-benchmark', "
+                + "CASE MOD(X, 10) WHEN 0 THEN 'MEDICO' WHEN 1 THEN 'ENFERMEIRO' ELSE 'PACIENTE' END, "
+                + "CURRENT_TIMESTAMP, MOD(X, 53) <> 0 FROM SYSTEM_RANGE(1, ?)", usuarios);
+        jdbcTemplate.update("INSERT INTO medicos (usuario_id, crm, especialidade) "
+                + "SELECT X, 'CRM' || X, 'Especialidade ' || MOD(X / 10, 20) FROM SYSTEM_RANGE(1, ?) WHERE MOD(X, 10) = 0", usuarios);
+        jdbcTemplate.update("INSERT INTO enfermeiros (usuario_id, coren, setor) "
+                + "SELECT X, 'COREN' || X, 'Setor ' || MOD(X / 10, 20) FROM SYSTEM_RANGE(1, ?) WHERE MOD(X, 10) = 1", usuarios);
+        jdbcTemplate.update("INSERT INTO pacientes (usuario_id, cpf, data_nascimento) "
+                + "SELECT X, LPAD(CAST(X AS VARCHAR), 11, '0'), DATE '1980-01-01' FROM SYSTEM_RANGE(1, ?) WHERE MOD(X, 10) > 1", usuarios);
+
+        popularDiretorio();
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @TearDown
+    public void tearDown() {
+        jdbcTemplate.execute("SHUTDOWN");
+        dataSource.destroy();
+    }
+
+    // The projection writes through Hibernate native queries, so it gets a plain entity manager and its own transaction
+    private void popularDiretorio() {
+        LocalContainerEntityManagerFactoryBean factoryBean = new LocalContainerEntityManagerFactoryBean();
+        factoryBean.setDataSource(dataSource);
+        factoryBean.setPackagesToScan(Usuario.class.getPackageName());
+        factoryBean.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        factoryBean.setJpaPropertyMap(Map.of(
+                "hibernate.physical_naming_strategy", CamelCaseToUnderscoresNamingStrategy.class.getName(),
+                "hibernate.implicit_naming_strategy", SpringImplicitNamingStrategy.class.getName()));
+        factoryBean.afterPropertiesSet();
+        EntityManagerFactory entityManagerFactory = factoryBean.getObject();
+        EntityManager em = entityManagerFactory.createEntityManager();
+        try {
+            DiretorioProjecaoService projecao = new DiretorioProjecaoService();
+            ReflectionTestUtils.setField(projecao, "entityManager", em);
+            em.getTransaction().begin();
+            projecao.reconstruir();
+            em.getTransaction().commit();
+        } finally {
+            em.close();
+            entityManagerFactory.close();
+        }
+    }
+
+    @Benchmark
+    public long medicosPorEspecialidadeJoin() {
+        return ler(MEDICOS_POR_ESPECIALIDADE_JOIN, "Especialidade 7");
+    }
+
+    @Benchmark
+    public long medicosPorEspecialidadePlano() {
+        return ler(MEDICOS_POR_ESPECIALIDADE_PLANO, "Especialidade 7");
+    }
+
+    @Benchmark
+    public long pacientesPorNomeJoin() {
+        return ler(PACIENTES_POR_NOME_JOIN, "nome 4242");
+    }
+
+    @Benchmark
+    public long pacientesPorNomePlano() {
+        return ler(PACIENTES_POR_NOME_PLANO, "nome 4242");
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public long enfermeirosJoin() {
+        return ler(ENFERMEIROS_JOIN);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public long enfermeirosPlano() {
+        return ler(ENFERMEIROS_PLANO);
+    }
+
+    // Reads every column of every row, as entity hydration would, and returns a checksum JMH cannot eliminate
+    private long ler(String sql, Object... argumentos) {
+        long[] soma = {0};
+        jdbcTemplate.query(sql, (RowCallbackHandler) rs -> {
+            int colunas = rs.getMetaData().getColumnCount();
+            for (int i = 1; i <= colunas; i++) {
+                Object valor = rs.getObject(i);
+                soma[0] += valor == null ? 0 : valor.hashCode();
+            }
+        }, argumentos);
+        return soma[0];
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(DiretorioBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
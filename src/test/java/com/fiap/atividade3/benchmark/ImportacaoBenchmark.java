@@ -0,0 +1,157 @@
+package com.fiap.atividade3.benchmark;
+
+import com.fiap.atividade3.model.entity.Consulta;
+import com.fiap.atividade3.model.entity.Medico;
+import com.fiap.atividade3.model.entity.Paciente;
+import com.fiap.atividade3.model.entity.Usuario;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.flywaydb.core.Flyway;
+import org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.orm.jpa.hibernate.SpringImplicitNamingStrategy;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+// 100k-row imports through Hibernate with the application's entity mappings, on H2 migrated by Flyway.
+// batchSize=1 reproduces the former behaviour (IDENTITY ids forced one insert round trip per row);
+// batchSize=50 is the configured default now that ids come from pooled sequences.
+// Passwords are hashed once up front: BCrypt per row would hide the cost of the writes.
+// Run with: mvn test-compile exec:java -Dexec.mainClass=com.fiap.atividade3.benchmark.ImportacaoBenchmark -Dexec.classpathScope=test
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = {"-Xmx2g"})
+@Threads(1)
+public class ImportacaoBenchmark {
+
+    // Rows between flush and clear, so the persistence context does not grow with the import
+    private static final int LINHAS_POR_FLUSH = 1000;
+
+    @Param({"1", "50"})
+    private String batchSize;
+
+    @Param({"100000"})
+    private int linhas;
+
+    private SingleConnectionDataSource dataSource;
+    private EntityManagerFactory entityManagerFactory;
+    private String senha;
+    private Long pacienteId;
+    private Long medicoId;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        dataSource = new SingleConnectionDataSource("jdbc:h2:mem:importacao_" + batchSize + ";DB_CLOSE_DELAY=-1", "sa", "", true);
+        Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration/common", "classpath:db/migration/h2")
+                .load()
+                .migrate();
+
+        LocalContainerEntityManagerFactoryBean factoryBean = new LocalContainerEntityManagerFactoryBean();
+        factoryBean.setDataSource(dataSource);
+        factoryBean.setPackagesToScan(Usuario.class.getPackageName());
+        factoryBean.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        factoryBean.setJpaPropertyMap(Map.of(
+                "hibernate.hbm2ddl.auto", "validate",
+                "hibernate.physical_naming_strategy", CamelCaseToUnderscoresNamingStrategy.class.getName(),
+                "hibernate.implicit_naming_strategy", SpringImplicitNamingStrategy.class.getName(),
+                "hibernate.jdbc.batch_size", batchSize,
+                "hibernate.order_inserts", "true"));
+        factoryBean.afterPropertiesSet();
+        entityManagerFactory = factoryBean.getObject();
+
+        senha = new BCryptPasswordEncoder().encode("senha123");
+        Medico medico = new Medico("Dr. Benchmark", "medico@benchmark.com", senha, "CRM00001", "Cardiologia");
+        Paciente paciente = new Paciente("Paciente Benchmark", "paciente@benchmark.com", senha, "99999999999", LocalDate.of(1980, 1, 1));
+        emTransacao(em -> {
+            em.persist(medico);
+            em.persist(paciente);
+            return null;
+        });
+        medicoId = medico.getId();
+        pacienteId = paciente.getId();
+    }
+
+    @TearDown(Level.Iteration)
+    public void limpar() {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.update("DELETE FROM consultas");
+        jdbcTemplate.update("DELETE FROM pacientes WHERE usuario_id <> ?", pacienteId);
+        jdbcTemplate.update("DELETE FROM usuarios WHERE id NOT IN (?, ?)", pacienteId, medicoId);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        entityManagerFactory.close();
+        new JdbcTemplate(dataSource).execute("SHUTDOWN");
+        dataSource.destroy();
+    }
+
+    @Benchmark
+    public int importarConsultas() {
+        LocalDateTime inicio = LocalDateTime.now().plusDays(1);
+        return emTransacao(em -> {
+            for (int i = 0; i < linhas; i++) {
+                Consulta consulta = new Consulta(inicio.plusMinutes(i), "Consulta importada " + i,
+                        em.getReference(Paciente.class, pacienteId), em.getReference(Medico.class, medicoId));
+                em.persist(consulta);
+                if ((i + 1) % LINHAS_POR_FLUSH == 0) {
+                    em.flush();
+                    em.clear();
+                }
+            }
+            return linhas;
+        });
+    }
+
+    @Benchmark
+    public int registrarPacientes() {
+        return emTransacao(em -> {
+            for (int i = 0; i < linhas; i++) {
+                em.persist(new Paciente("Paciente " + i, "paciente" + i + "@importacao.com", senha,
+                        String.format("%011d", i), LocalDate.of(1980, 1, 1)));
+                if ((i + 1) % LINHAS_POR_FLUSH == 0) {
+                    em.flush();
+                    em.clear();
+                }
+            }
+            return linhas;
+        });
+    }
+
+    private <T> T emTransacao(Function<EntityManager, T> trabalho) {
+        EntityManager em = entityManagerFactory.createEntityManager();
+        try {
+            em.getTransaction().begin();
+            T resultado = trabalho.apply(em);
+            em.getTransaction().commit();
+            return resultado;
+        } finally {
+            em.close();
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(ImportacaoBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
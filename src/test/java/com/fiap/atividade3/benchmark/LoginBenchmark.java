@@ -0,0 +1,87 @@
+package com.fiap.atividade3.benchmark;
+
+import com.fiap.atividade3.graphql.type.AuthPayload;
+import com.fiap.atividade3.model.entity.Medico;
+import com.fiap.atividade3.repository.UsuarioRepository;
+import com.fiap.atividade3.security.JwtUtil;
+import com.fiap.atividade3.security.UserSnapshot;
+import com.fiap.atividade3.service.AuthService;
+import com.fiap.atividade3.service.CustomUserDetailsService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+// Login throughput per core (single benchmark thread): lookup + BCrypt verify + JWT signing.
+// Run with: mvn test-compile exec:java -Dexec.mainClass=com.fiap.atividade3.benchmark.LoginBenchmark -Dexec.classpathScope=test
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(1)
+public class LoginBenchmark {
+
+    private static final String EMAIL = "joao.silva@hospital.com";
+    private static final String SENHA = "senha123";
+
+    private AuthService authService;
+    private JwtUtil jwtUtil;
+    private UserSnapshot usuario;
+
+    @Setup
+    public void setup() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
+
+        Medico medico = new Medico("Dr. João Silva", EMAIL, passwordEncoder.encode(SENHA), "CRM12345", "Cardiologia");
+        medico.setId(1L);
+        usuario = UserSnapshot.of(medico);
+
+        CustomUserDetailsService userDetailsService = Mockito.mock(CustomUserDetailsService.class);
+        Mockito.when(userDetailsService.loadUserByUsername(EMAIL)).thenReturn(usuario);
+        UsuarioRepository usuarioRepository = Mockito.mock(UsuarioRepository.class);
+        Mockito.when(usuarioRepository.findById(1L)).thenReturn(Optional.of(medico));
+
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", "hospitalManagementSecretKeyForJWTTokenGeneration2024");
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 86400000L);
+        ReflectionTestUtils.setField(jwtUtil, "cacheMaxSize", 10000L);
+        ReflectionTestUtils.setField(jwtUtil, "meterRegistry", meterRegistry);
+        jwtUtil.init();
+
+        authService = new AuthService();
+        ReflectionTestUtils.setField(authService, "passwordEncoder", passwordEncoder);
+        ReflectionTestUtils.setField(authService, "jwtUtil", jwtUtil);
+        ReflectionTestUtils.setField(authService, "userDetailsService", userDetailsService);
+        ReflectionTestUtils.setField(authService, "usuarioRepository", usuarioRepository);
+        ReflectionTestUtils.setField(authService, "meterRegistry", meterRegistry);
+        authService.init();
+    }
+
+    @Benchmark
+    public AuthPayload login() {
+        return authService.login(EMAIL, SENHA);
+    }
+
+    @Benchmark
+    public String assinarToken() {
+        return jwtUtil.generateToken(usuario);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(LoginBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
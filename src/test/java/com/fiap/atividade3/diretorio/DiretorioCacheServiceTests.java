@@ -0,0 +1,35 @@
+package com.fiap.atividade3.diretorio;
+
+import com.fiap.atividade3.diretorio.service.DiretorioCacheService;
+import com.fiap.atividade3.model.enums.UserRole;
+import com.fiap.atividade3.service.event.DiretorioAlteradoEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+class DiretorioCacheServiceTests {
+
+	@Autowired
+	private DiretorioCacheService diretorioCacheService;
+
+	@Test
+	void etagDependsOnlyOnTheListingContent() {
+		DiretorioCacheService.Listagem<?> antes = diretorioCacheService.medicos();
+
+		// Another node's broadcast moves this node to a new cache key without changing any row
+		diretorioCacheService.onDiretorioAlterado(new DiretorioAlteradoEvent(UserRole.MEDICO));
+		DiretorioCacheService.Listagem<?> depois = diretorioCacheService.medicos();
+
+		assertThat(depois).isNotSameAs(antes);
+		assertThat(depois.getEtag()).isEqualTo(antes.getEtag());
+	}
+
+	@Test
+	void differentListingsHaveDifferentTags() {
+		assertThat(diretorioCacheService.medicosPorEspecialidade("Especialidade inexistente").getEtag())
+				.isNotEqualTo(diretorioCacheService.medicos().getEtag());
+	}
+}
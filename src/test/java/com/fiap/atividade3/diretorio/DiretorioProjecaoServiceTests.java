@@ -0,0 +1,109 @@
+package com.fiap.atividade3.diretorio;
+
+import com.fiap.atividade3.graphql.input.MedicoInput;
+import com.fiap.atividade3.graphql.input.PacienteInput;
+import com.fiap.atividade3.graphql.type.PacienteLoteResultado;
+import com.fiap.atividade3.model.entity.DiretorioPaciente;
+import com.fiap.atividade3.model.entity.Medico;
+import com.fiap.atividade3.repository.DiretorioMedicoRepository;
+import com.fiap.atividade3.repository.DiretorioPacienteRepository;
+import com.fiap.atividade3.repository.MedicoRepository;
+import com.fiap.atividade3.repository.PacienteRepository;
+import com.fiap.atividade3.service.UserRegistrationService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Goes through UserRegistrationService so the listeners run in the registration's own transaction, as in production
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@WithMockUser(roles = "MEDICO")
+class DiretorioProjecaoServiceTests {
+
+	@Autowired
+	private UserRegistrationService userRegistrationService;
+
+	@Autowired
+	private DiretorioMedicoRepository diretorioMedicoRepository;
+
+	@Autowired
+	private DiretorioPacienteRepository diretorioPacienteRepository;
+
+	@Autowired
+	private MedicoRepository medicoRepository;
+
+	@Autowired
+	private PacienteRepository pacienteRepository;
+
+	private final List<Long> medicos = new ArrayList<>();
+
+	private final List<Long> pacientes = new ArrayList<>();
+
+	@AfterEach
+	void tearDown() {
+		// Directory rows first: they reference the subtype rows
+		diretorioMedicoRepository.deleteAllById(medicos);
+		diretorioPacienteRepository.deleteAllById(pacientes);
+		medicoRepository.deleteAllById(medicos);
+		pacienteRepository.deleteAllById(pacientes);
+	}
+
+	@Test
+	void registrationAddsTheRowAndDeactivationRemovesIt() {
+		Medico medico = userRegistrationService.registrarMedico(medico("Dra. Projecao", "projecao@diretorio.test", "CRM-D1"));
+		medicos.add(medico.getId());
+
+		assertThat(diretorioMedicoRepository.findById(medico.getId())).get().satisfies(linha -> {
+			assertThat(linha.getNome()).isEqualTo("Dra. Projecao");
+			assertThat(linha.getEspecialidade()).isEqualTo("Neurologia");
+		});
+
+		userRegistrationService.desativarUsuario(medico.getId());
+
+		assertThat(diretorioMedicoRepository.findById(medico.getId())).isEmpty();
+	}
+
+	@Test
+	void bulkRegistrationCopiesOnlyTheInsertedRows() {
+		List<PacienteLoteResultado> resultados = userRegistrationService.registrarPacientesEmLote(List.of(
+				paciente("Lote Um", "um@diretorio.test", "111.111.111-11"),
+				paciente("Lote Dois", "dois@diretorio.test", "222.222.222-22"),
+				// Same email as the first item: reported, not inserted
+				paciente("Lote Tres", "um@diretorio.test", "333.333.333-33")));
+		resultados.stream().map(PacienteLoteResultado::getId).filter(Objects::nonNull).forEach(pacientes::add);
+
+		assertThat(resultados).extracting(PacienteLoteResultado::isSucesso).containsExactly(true, true, false);
+		assertThat(diretorioPacienteRepository.findAllById(pacientes))
+				.extracting(DiretorioPaciente::getNome)
+				.containsExactlyInAnyOrder("Lote Um", "Lote Dois");
+	}
+
+
+	private static MedicoInput medico(String nome, String email, String crm) {
+		MedicoInput input = new MedicoInput();
+		input.setNome(nome);
+		input.setEmail(email);
+		input.setSenha("senha123");
+		input.setCrm(crm);
+		input.setEspecialidade("Neurologia");
+		return input;
+	}
+
+	private static PacienteInput paciente(String nome, String email, String cpf) {
+		PacienteInput input = new PacienteInput();
+		input.setNome(nome);
+		input.setEmail(email);
+		input.setSenha("senha123");
+		input.setCpf(cpf);
+		input.setDataNascimento(LocalDate.of(1992, 7, 1));
+		return input;
+	}
+}
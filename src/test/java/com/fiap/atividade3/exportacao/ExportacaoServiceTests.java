@@ -0,0 +1,153 @@
+package com.fiap.atividade3.exportacao;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fiap.atividade3.exportacao.service.ExportacaoService;
+import com.fiap.atividade3.exportacao.service.FiltroExportacao;
+import com.fiap.atividade3.model.entity.Consulta;
+import com.fiap.atividade3.model.entity.Medico;
+import com.fiap.atividade3.model.entity.Paciente;
+import com.fiap.atividade3.repository.ConsultaRepository;
+import com.fiap.atividade3.repository.MedicoRepository;
+import com.fiap.atividade3.repository.PacienteRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+class ExportacaoServiceTests {
+
+	private static final LocalDateTime INICIO = LocalDateTime.of(2020, 3, 2, 9, 0);
+
+	@Autowired
+	private ExportacaoService exportacaoService;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private ConsultaRepository consultaRepository;
+
+	@Autowired
+	private MedicoRepository medicoRepository;
+
+	@Autowired
+	private PacienteRepository pacienteRepository;
+
+	private Medico cardiologista;
+
+	private Medico ortopedista;
+
+	private Paciente paciente;
+
+	private List<Consulta> consultas;
+
+	@BeforeEach
+	void setUp() {
+		cardiologista = medicoRepository.save(new Medico("Cardio Export", "cardio@exportacao.test", "senha123", "CRM-E1", "Cardiologia Export"));
+		ortopedista = medicoRepository.save(new Medico("Orto Export", "orto@exportacao.test", "senha123", "CRM-E2", "Ortopedia Export"));
+		paciente = pacienteRepository.save(new Paciente("Paciente Export", "paciente@exportacao.test", "senha123", "91000000001", LocalDate.of(1985, 5, 5)));
+
+		Consulta primeira = new Consulta(INICIO, "Dor no peito, \"aguda\"", paciente, cardiologista);
+		Consulta segunda = new Consulta(INICIO.plusDays(1), "Retorno", paciente, cardiologista);
+		Consulta terceira = new Consulta(INICIO.plusDays(2), "Joelho", paciente, ortopedista);
+		consultas = consultaRepository.saveAll(List.of(primeira, segunda, terceira));
+	}
+
+	@AfterEach
+	void tearDown() {
+		// Only the rows created here; the sample data stays in place. A save that failed in setUp left its field null
+		if (consultas != null) {
+			consultaRepository.deleteAll(consultas);
+		}
+		medicoRepository.deleteAll(Stream.of(cardiologista, ortopedista).filter(Objects::nonNull).toList());
+		if (paciente != null) {
+			pacienteRepository.delete(paciente);
+		}
+	}
+
+	@Test
+	void ndjsonWritesOneObjectPerLine() throws IOException {
+		String saida = exportar(doPaciente(), ExportacaoService.Formato.NDJSON);
+
+		String[] linhas = saida.split("\n");
+		assertThat(saida).endsWith("}\n");
+		assertThat(linhas).hasSize(3).allSatisfy(linha -> assertThat(linha).startsWith("{").endsWith("}"));
+
+		JsonNode primeira = objectMapper.readTree(linhas[0]);
+		assertThat(primeira.get("id").asLong()).isEqualTo(consultas.get(0).getId());
+		assertThat(primeira.get("motivo").asText()).isEqualTo("Dor no peito, \"aguda\"");
+		assertThat(primeira.get("data_consulta").asText()).isEqualTo("2020-03-02T09:00");
+		assertThat(primeira.get("especialidade").asText()).isEqualTo("Cardiologia Export");
+		assertThat(primeira.get("enfermeiro_id").isNull()).isTrue();
+	}
+
+	@Test
+	void csvQuotesFieldsWithSeparatorsAndQuotes() throws IOException {
+		String saida = exportar(doPaciente(), ExportacaoService.Formato.CSV);
+
+		String[] linhas = saida.split("\r\n");
+		assertThat(linhas).hasSize(4);
+		assertThat(linhas[0]).startsWith("id,data_consulta,motivo,");
+		assertThat(linhas[1]).startsWith(consultas.get(0).getId() + ",2020-03-02T09:00,\"Dor no peito, \"\"aguda\"\"\",");
+		assertThat(linhas[3]).contains(",Joelho,").contains(",Ortopedia Export,");
+	}
+
+	@Test
+	void appliesEveryFilter() throws IOException {
+		FiltroExportacao porMedico = doPaciente();
+		porMedico.setMedicoId(cardiologista.getId());
+		assertThat(contar(porMedico)).isEqualTo(2);
+
+		FiltroExportacao porEspecialidade = doPaciente();
+		porEspecialidade.setEspecialidade("Ortopedia Export");
+		assertThat(contar(porEspecialidade)).isEqualTo(1);
+
+		// Both ends are inclusive
+		FiltroExportacao porPeriodo = doPaciente();
+		porPeriodo.setInicio(INICIO.plusDays(1));
+		porPeriodo.setFim(INICIO.plusDays(2));
+		assertThat(contar(porPeriodo)).isEqualTo(2);
+
+		assertThat(contar(new FiltroExportacao(null, null, ortopedista.getId(), "Cardiologia Export", null))).isZero();
+	}
+
+	@Test
+	void emptyNdjsonExportWritesNothing() throws IOException {
+		FiltroExportacao vazio = doPaciente();
+		vazio.setInicio(INICIO.plusYears(1));
+
+		assertThat(exportar(vazio, ExportacaoService.Formato.NDJSON)).isEmpty();
+	}
+
+
+	private FiltroExportacao doPaciente() {
+		return new FiltroExportacao(null, null, null, null, paciente.getId());
+	}
+
+	private long contar(FiltroExportacao filtro) throws IOException {
+		ByteArrayOutputStream saida = new ByteArrayOutputStream();
+		long linhas = exportacaoService.exportar(filtro, ExportacaoService.Formato.NDJSON, saida);
+		assertThat(saida.toString(StandardCharsets.UTF_8).split("\n", -1)).hasSize((int) linhas + 1);
+		return linhas;
+	}
+
+	private String exportar(FiltroExportacao filtro, ExportacaoService.Formato formato) throws IOException {
+		ByteArrayOutputStream saida = new ByteArrayOutputStream();
+		exportacaoService.exportar(filtro, formato, saida);
+		return saida.toString(StandardCharsets.UTF_8);
+	}
+}
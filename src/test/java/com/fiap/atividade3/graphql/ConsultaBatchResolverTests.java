@@ -0,0 +1,123 @@
+package com.fiap.atividade3.graphql;
+
+import com.fiap.atividade3.model.entity.Consulta;
+import com.fiap.atividade3.model.entity.Enfermeiro;
+import com.fiap.atividade3.model.entity.Medico;
+import com.fiap.atividade3.model.entity.Paciente;
+import com.fiap.atividade3.repository.ConsultaRepository;
+import com.fiap.atividade3.repository.EnfermeiroRepository;
+import com.fiap.atividade3.repository.MedicoRepository;
+import com.fiap.atividade3.repository.PacienteRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.graphql.tester.AutoConfigureGraphQlTester;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.graphql.test.tester.GraphQlTester;
+import org.springframework.security.test.context.support.WithMockUser;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+		"spring.jpa.properties.hibernate.generate_statistics=true",
+		"spring.jpa.show-sql=false",
+		"consulta.paginacao.tamanho-maximo=1000",
+		// 1000 rows with three relations each cost 5 + 1000 * (1 + 1 + 3) = 5005 under the default weights
+		"query-cost.max-cost=10000"
+})
+@AutoConfigureGraphQlTester
+class ConsultaBatchResolverTests {
+
+	private static final int TOTAL_CONSULTAS = 1000;
+
+	@Autowired
+	private GraphQlTester graphQlTester;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private ConsultaRepository consultaRepository;
+
+	@Autowired
+	private PacienteRepository pacienteRepository;
+
+	@Autowired
+	private MedicoRepository medicoRepository;
+
+	@Autowired
+	private EnfermeiroRepository enfermeiroRepository;
+
+	private List<Medico> medicos;
+
+	private List<Paciente> pacientes;
+
+	private List<Enfermeiro> enfermeiros;
+
+	private List<Consulta> consultas;
+
+	@BeforeEach
+	void setUp() {
+		// Empty until saved, so tearDown has nothing to delete if a save fails
+		consultas = List.of();
+		medicos = new ArrayList<>();
+		for (int i = 0; i < 20; i++) {
+			medicos.add(new Medico("Medico " + i, "medico" + i + "@batch.test", "senha123", "CRM-B" + i, "Clinica"));
+		}
+		pacientes = new ArrayList<>();
+		for (int i = 0; i < 50; i++) {
+			pacientes.add(new Paciente("Paciente " + i, "paciente" + i + "@batch.test", "senha123",
+					String.format("900%08d", i), LocalDate.of(1990, 1, 1)));
+		}
+		enfermeiros = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			enfermeiros.add(new Enfermeiro("Enfermeiro " + i, "enfermeiro" + i + "@batch.test", "senha123", "COREN-B" + i, "UTI"));
+		}
+		medicos = medicoRepository.saveAll(medicos);
+		pacientes = pacienteRepository.saveAll(pacientes);
+		enfermeiros = enfermeiroRepository.saveAll(enfermeiros);
+
+		consultas = new ArrayList<>();
+		for (int i = 0; i < TOTAL_CONSULTAS; i++) {
+			Consulta consulta = new Consulta(LocalDateTime.now().minusHours(i), "Motivo " + i,
+					pacientes.get(i % pacientes.size()), medicos.get(i % medicos.size()));
+			consulta.setEnfermeiro(enfermeiros.get(i % enfermeiros.size()));
+			consultas.add(consulta);
+		}
+		consultas = consultaRepository.saveAll(consultas);
+	}
+
+	@AfterEach
+	void tearDown() {
+		// Only the rows created here: the sample users also have directory rows referencing them
+		consultaRepository.deleteAllInBatch(consultas);
+		medicoRepository.deleteAll(medicos);
+		pacienteRepository.deleteAll(pacientes);
+		enfermeiroRepository.deleteAll(enfermeiros);
+	}
+
+	@Test
+	@WithMockUser(roles = "MEDICO")
+	void todasConsultasLoadsRelationsInBatches() {
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+
+		graphQlTester.document("""
+				{ todasConsultas(first: 1000) { edges { node { id paciente { nome } medico { nome } enfermeiro { nome } } } } }
+				""")
+				.execute()
+				.path("todasConsultas.edges").entityList(Object.class).hasSize(TOTAL_CONSULTAS);
+
+		// One keyset query for the page plus one IN query per relation
+		assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(4);
+	}
+}
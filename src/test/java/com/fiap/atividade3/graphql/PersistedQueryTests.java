@@ -0,0 +1,98 @@
+package com.fiap.atividade3.graphql;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Goes through the HTTP handler on purpose: the point is that a body without "query" is accepted at all
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@AutoConfigureMockMvc
+@WithMockUser(roles = "MEDICO")
+class PersistedQueryTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Test
+	void runsManifestOperationsFromTheHashAlone() throws Exception {
+		String medicos;
+		try (InputStream in = new ClassPathResource("graphql/persisted-queries.json").getInputStream()) {
+			medicos = objectMapper.readValue(in, new TypeReference<Map<String, String>>() {}).get("Medicos");
+		}
+
+		perform(null, sha256(medicos))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.errors").doesNotExist())
+				.andExpect(jsonPath("$.data.medicos").isArray());
+	}
+
+	@Test
+	void registersUnknownOperationsThroughTheHandshake() throws Exception {
+		String query = "query PersistedQueryTests { pacientes { id } }";
+		String hash = sha256(query);
+
+		perform(null, hash)
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.errors[0].message").value("PersistedQueryNotFound"));
+
+		perform(query, hash)
+				.andExpect(jsonPath("$.errors").doesNotExist())
+				.andExpect(jsonPath("$.data.pacientes").isArray());
+
+		perform(null, hash)
+				.andExpect(jsonPath("$.errors").doesNotExist())
+				.andExpect(jsonPath("$.data.pacientes").isArray());
+	}
+
+	@Test
+	void rejectsATextThatDoesNotMatchItsHash() throws Exception {
+		perform("query PersistedQueryTests { medicos { id } }", sha256("query Outra { medicos { nome } }"))
+				.andExpect(jsonPath("$.errors[0].message").value("PersistedQueryIdInvalid"))
+				.andExpect(jsonPath("$.data").doesNotExist());
+	}
+
+
+	private ResultActions perform(String query, String hash) throws Exception {
+		Map<String, Object> body = new HashMap<>();
+		if (query != null) {
+			body.put("query", query);
+		}
+		body.put("extensions", Map.of("persistedQuery", Map.of("version", 1, "sha256Hash", hash)));
+
+		ResultActions actions = mockMvc.perform(post("/graphql")
+				.contentType(MediaType.APPLICATION_JSON)
+				.accept(MediaType.APPLICATION_JSON)
+				.content(objectMapper.writeValueAsString(body)));
+		// The handler answers asynchronously unless execution already completed
+		MvcResult result = actions.andReturn();
+		return result.getRequest().isAsyncStarted() ? mockMvc.perform(asyncDispatch(result)) : actions;
+	}
+
+	private static String sha256(String text) throws Exception {
+		return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8)));
+	}
+}
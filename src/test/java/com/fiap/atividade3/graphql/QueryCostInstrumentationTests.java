@@ -0,0 +1,82 @@
+package com.fiap.atividade3.graphql;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.graphql.tester.AutoConfigureGraphQlTester;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.graphql.test.tester.GraphQlTester;
+import org.springframework.security.test.context.support.WithMockUser;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+		"spring.jpa.show-sql=false",
+		"query-cost.max-depth=8",
+		"query-cost.max-cost=5000",
+		"consulta.paginacao.tamanho-maximo=100"
+})
+@AutoConfigureGraphQlTester
+@WithMockUser(roles = "MEDICO")
+class QueryCostInstrumentationTests {
+
+	@Autowired
+	private GraphQlTester graphQlTester;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Test
+	void rejectsOperationsDeeperThanTheLimit() {
+		// Nine levels once the edges/node plumbing is left out
+		graphQlTester.document("""
+				{ todasConsultas(first: 1) { edges { node {
+					medico { consultas { paciente { consultas { medico { consultas { paciente { nome } } } } } } }
+				} } } }
+				""")
+				.execute()
+				.errors()
+				.satisfy(errors -> assertThat(errors).singleElement().satisfies(error -> {
+					assertThat(error.getMessage()).isEqualTo("Consulta excede a profundidade máxima permitida");
+					assertThat(error.getExtensions()).containsKeys("depth", "maxDepth");
+				}));
+	}
+
+	@Test
+	void rejectsOperationsOverTheCostBudget() {
+		// 5 + 100 * (1 + 1 + (1 + (1 + 50 * 1))) = 5405: every Medico.consultas list is assumed to hold 50 rows
+		graphQlTester.document("""
+				{ todasConsultas(first: 100) { edges { node { medico { consultas { paciente { nome } } } } } } }
+				""")
+				.execute()
+				.errors()
+				.satisfy(errors -> assertThat(errors).singleElement().satisfies(error -> {
+					assertThat(error.getMessage()).isEqualTo("Consulta excede o custo máximo permitido");
+					assertThat(error.getExtensions()).containsKeys("cost", "maxCost");
+				}));
+	}
+
+	@Test
+	void estimatesFirstCappedAtTheMaximumPageSize() {
+		// Priced as 100 rows, the page actually served, not as the 100000 requested (which would cost 200005)
+		graphQlTester.document("""
+				{ todasConsultas(first: 100000) { edges { node { id } } } }
+				""")
+				.execute()
+				.path("todasConsultas.edges")
+				.hasValue();
+	}
+
+	@Test
+	void tagsUnregisteredOperationNamesAsOther() {
+		graphQlTester.document("""
+				query NomeEscolhidoPeloCliente { todasConsultas(first: 1) { edges { node { id } } } }
+				""")
+				.execute()
+				.path("todasConsultas.edges")
+				.hasValue();
+
+		assertThat(meterRegistry.find("graphql.operation.cost").tag("operation", "NomeEscolhidoPeloCliente").meters()).isEmpty();
+		assertThat(meterRegistry.find("graphql.operation.cost").tag("operation", "other").meters()).isNotEmpty();
+	}
+}
@@ -0,0 +1,79 @@
+package com.fiap.atividade3.security;
+
+import com.fiap.atividade3.graphql.input.MedicoInput;
+import com.fiap.atividade3.graphql.type.AuthPayload;
+import com.fiap.atividade3.model.entity.Medico;
+import com.fiap.atividade3.model.enums.UserRole;
+import com.fiap.atividade3.repository.DiretorioMedicoRepository;
+import com.fiap.atividade3.repository.MedicoRepository;
+import com.fiap.atividade3.service.AuthService;
+import com.fiap.atividade3.service.UserRegistrationService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+class AuthServiceTests {
+
+	@Autowired
+	private AuthService authService;
+
+	@Autowired
+	private UserRegistrationService userRegistrationService;
+
+	@Autowired
+	private MedicoRepository medicoRepository;
+
+	@Autowired
+	private DiretorioMedicoRepository diretorioMedicoRepository;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private Medico medico;
+
+	@BeforeEach
+	void setUp() {
+		MedicoInput input = new MedicoInput();
+		input.setNome("Medico Login");
+		input.setEmail("medico@login.test");
+		input.setSenha("senha123");
+		input.setCrm("CRM-L1");
+		input.setEspecialidade("Clinica");
+		medico = userRegistrationService.registrarMedico(input);
+	}
+
+	@AfterEach
+	void tearDown() {
+		if (medico != null) {
+			// The directory row first: it references the medicos row
+			diretorioMedicoRepository.deleteById(medico.getId());
+			medicoRepository.deleteById(medico.getId());
+		}
+	}
+
+	@Test
+	void loginWithACachedUserDoesNotQueryTheDatabase() {
+		// The first login loads the user and caches its snapshot
+		authService.login("medico@login.test", "senha123");
+
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+		AuthPayload payload = authService.login("medico@login.test", "senha123");
+
+		assertThat(statistics.getPrepareStatementCount()).isZero();
+		assertThat(payload.getToken()).isNotBlank();
+		assertThat(payload.getUsuario().getId()).isEqualTo(medico.getId());
+		assertThat(payload.getUsuario().getEmail()).isEqualTo("medico@login.test");
+		assertThat(payload.getUsuario().getRole()).isEqualTo(UserRole.MEDICO);
+		assertThat(payload.getUsuario().getCreatedAt()).isNotNull();
+		assertThat(payload.getUsuario().getSenha()).isNull();
+	}
+}
@@ -0,0 +1,91 @@
+package com.fiap.atividade3.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RateLimiterTests {
+
+	private RateLimitProperties properties;
+
+	private RateLimiter rateLimiter;
+
+	@BeforeEach
+	void setUp() {
+		properties = new RateLimitProperties();
+		rateLimiter = new RateLimiter();
+		ReflectionTestUtils.setField(rateLimiter, "properties", properties);
+		ReflectionTestUtils.setField(rateLimiter, "meterRegistry", new SimpleMeterRegistry());
+		rateLimiter.init();
+	}
+
+	@Test
+	void allowsTheBurstThenRejectsWithRetryAfter() {
+		RateLimitProperties.Limit limit = new RateLimitProperties.Limit(3, 0.5, RateLimitProperties.KeyType.USER);
+
+		for (int i = 0; i < 3; i++) {
+			rateLimiter.acquire("login", limit, "ana");
+		}
+
+		// One token every 2 s once the burst is spent
+		assertThatThrownBy(() -> rateLimiter.acquire("login", limit, "ana"))
+				.isInstanceOfSatisfying(RateLimitExceededException.class, e -> {
+					assertThat(e.getLimit()).isEqualTo("login");
+					assertThat(e.getRetryAfterMs()).isBetween(1L, 2000L);
+				});
+	}
+
+	@Test
+	void keysAndLimitsHaveSeparateBuckets() {
+		RateLimitProperties.Limit limit = new RateLimitProperties.Limit(1, 0.01, RateLimitProperties.KeyType.USER);
+
+		rateLimiter.acquire("login", limit, "ana");
+
+		assertThatCode(() -> rateLimiter.acquire("login", limit, "bruno")).doesNotThrowAnyException();
+		assertThatCode(() -> rateLimiter.acquire("todasConsultas", limit, "ana")).doesNotThrowAnyException();
+		assertThatThrownBy(() -> rateLimiter.acquire("login", limit, "ana")).isInstanceOf(RateLimitExceededException.class);
+	}
+
+	@Test
+	void refillsAtTheConfiguredRate() throws InterruptedException {
+		// One token per millisecond
+		RateLimitProperties.Limit limit = new RateLimitProperties.Limit(1, 1000, RateLimitProperties.KeyType.IP);
+
+		rateLimiter.acquire("http", limit, "10.0.0.1");
+		Thread.sleep(20);
+
+		assertThatCode(() -> rateLimiter.acquire("http", limit, "10.0.0.1")).doesNotThrowAnyException();
+	}
+
+	@Test
+	void disabledLimiterNeverRejects() {
+		properties.setEnabled(false);
+		RateLimitProperties.Limit limit = new RateLimitProperties.Limit(1, 0.01, RateLimitProperties.KeyType.USER);
+
+		for (int i = 0; i < 10; i++) {
+			rateLimiter.acquire("login", limit, "ana");
+		}
+	}
+
+	@Test
+	void rejectsRatesThatWouldBreakTheArithmetic() {
+		Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+		properties.setHttp(new RateLimitProperties.Limit(10, 0, RateLimitProperties.KeyType.IP));
+		properties.getOperations().put("login", new RateLimitProperties.Limit(0, 1, RateLimitProperties.KeyType.IP));
+
+		Set<ConstraintViolation<RateLimitProperties>> violacoes = validator.validate(properties);
+
+		assertThat(violacoes).extracting(violacao -> violacao.getPropertyPath().toString())
+				.containsExactlyInAnyOrder("http.refillPerSecond", "operations[login].capacity");
+	}
+}